@@ -0,0 +1,31 @@
+package com.inventory.management.config;
+
+import com.inventory.management.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal of an authenticated request: built from the claims of a stateless token (see
+ * {@code jwt.stateless-principal}), or from the {@code users} row through {@link
+ * com.inventory.management.service.UserPrincipalCache}. Carries everything a request needs about the
+ * caller without loading the row again, and nothing secret.
+ */
+public record AuthenticatedUser(Long id, String username, String role, int tokenVersion) implements Principal {
+    
+    @Override
+    public String getName() {
+        return username;
+    }
+    
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+    
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole(), user.getTokenVersion());
+    }
+}
@@ -0,0 +1,39 @@
+package com.inventory.management.config;
+
+import com.inventory.management.model.User;
+import com.inventory.management.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the {@link User} behind the current request. {@link JwtAuthenticationFilter} stores an
+ * {@link AuthenticatedUser} as the authentication principal, either from stateless token claims or
+ * from the principal cache, and a JPA reference to its id is returned: enough for query parameters
+ * such as {@code findByIdAndUser} and for setting {@code user_id} on new rows, without a query.
+ * Any other field of the reference fails to load rather than reading as {@code null}.
+ */
+@Component
+public class CurrentUserResolver {
+    
+    private final UserRepository userRepository;
+    
+    @Autowired
+    public CurrentUserResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+    
+    public User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return userRepository.getReferenceById(authenticatedUser.id());
+        }
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+}
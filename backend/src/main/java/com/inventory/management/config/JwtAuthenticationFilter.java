@@ -1,14 +1,19 @@
 package com.inventory.management.config;
 
+import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.TokenVersionRegistry;
+import com.inventory.management.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,11 +23,19 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    
     @Autowired
     private JwtUtil jwtUtil;
     
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserPrincipalCache userPrincipalCache;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,45 +45,65 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             final String authorizationHeader = request.getHeader("Authorization");
             
             String username = null;
-            String jwt = null;
+            Claims claims = null;
             
             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-                jwt = authorizationHeader.substring(7);
+                String jwt = authorizationHeader.substring(7);
                 try {
-                    username = jwtUtil.extractUsername(jwt);
-                    if (username != null) {
-                        System.out.println("JWT Filter - Username extracted: " + username);
-                    } else {
-                        System.out.println("JWT Filter - Failed to extract username from token");
+                    // Signature and expiry are verified once here; the claims are reused below
+                    claims = jwtUtil.verifyToken(jwt);
+                    username = claims != null ? claims.getSubject() : null;
+                    if (username == null) {
+                        log.atDebug().addKeyValue("uri", request.getRequestURI()).log("jwt rejected");
                     }
                 } catch (Exception e) {
-                    System.out.println("JWT Filter - Error extracting username: " + e.getMessage());
+                    log.atDebug().addKeyValue("error", e.getMessage()).log("jwt rejected");
                 }
             } else {
-                System.out.println("JWT Filter - No Authorization header or invalid format for: " + request.getRequestURI());
+                log.atTrace().addKeyValue("uri", request.getRequestURI()).log("no bearer token");
             }
             
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser claimsPrincipal = jwtUtil.isStatelessPrincipal() ? jwtUtil.toAuthenticatedUser(claims) : null;
+            
+            if (claimsPrincipal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Stateless mode: everything needed is in the verified claims, no users lookup
+                if (tokenVersionRegistry.isCurrent(claimsPrincipal.id(), claimsPrincipal.tokenVersion())) {
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        claimsPrincipal, null, claimsPrincipal.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                } else {
+                    log.atDebug().addKeyValue("user", username).log("jwt revoked");
+                }
+            } else if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 try {
-                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                    AuthenticatedUser principal = userPrincipalCache.get(username, this::loadPrincipal);
                     
-                    if (jwtUtil.validateToken(jwt, userDetails)) {
+                    if (jwtUtil.tokenVersion(claims) != principal.tokenVersion()) {
+                        log.atDebug().addKeyValue("user", username).log("jwt revoked");
+                    } else if (jwtUtil.validateClaims(claims, principal.username())) {
                         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                            principal, null, principal.getAuthorities());
                         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authToken);
-                        System.out.println("JWT Filter - Authentication successful for user: " + username);
+                        log.atTrace().addKeyValue("user", username).log("jwt authenticated");
                     } else {
-                        System.out.println("JWT Filter - Token validation failed for user: " + username);
+                        log.atDebug().addKeyValue("user", username).log("jwt validation failed");
                     }
                 } catch (Exception e) {
-                    System.out.println("JWT Filter - Error loading user details: " + e.getMessage());
+                    log.atDebug().addKeyValue("user", username).addKeyValue("error", e.getMessage()).log("user lookup failed");
                 }
             }
         } catch (Exception e) {
-            System.out.println("JWT Filter - General error: " + e.getMessage());
+            log.warn("JWT authentication failed unexpectedly", e);
         }
         
         filterChain.doFilter(request, response);
     }
+    
+    private AuthenticatedUser loadPrincipal(String username) {
+        return userRepository.findByUsername(username)
+                .map(AuthenticatedUser::of)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+    }
 }
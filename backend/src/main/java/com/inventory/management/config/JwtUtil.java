@@ -1,7 +1,11 @@
 package com.inventory.management.config;
 
+import com.inventory.management.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -14,36 +18,120 @@ import java.util.Map;
 @Component
 public class JwtUtil {
     
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+    
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+    
+    // Built once: deriving the HMAC key and the parser is comparable in cost to verifying a token
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
+    /**
+     * The token version is always signed in, so revoking a user's tokens works in both modes; the
+     * user id and role only in stateless mode, where they replace the lookup.
+     */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+            if (statelessPrincipal) {
+                claims.put(CLAIM_USER_ID, user.getId());
+                claims.put(CLAIM_ROLE, user.getRole());
+            }
+        }
         return createToken(claims, userDetails.getUsername());
     }
     
+    public boolean isStatelessPrincipal() {
+        return statelessPrincipal;
+    }
+    
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    /**
+     * Parses the token and verifies its signature and expiry exactly once.
+     * Returns the claims, or {@code null} if the token is not valid.
+     */
+    public Claims verifyToken(String token) {
+        try {
+            return extractAllClaims(token);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Checks already verified claims against the loaded user without re-parsing the token.
+     */
+    public boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return validateClaims(claims, userDetails.getUsername());
+    }
+    
+    public boolean validateClaims(Claims claims, String expectedUsername) {
+        if (claims == null) {
+            return false;
+        }
+        String username = claims.getSubject();
+        Date expirationDate = claims.getExpiration();
+        return username != null &&
+               username.equals(expectedUsername) &&
+               (expirationDate == null || !expirationDate.before(new Date()));
+    }
+    
+    /**
+     * Builds the principal from verified claims, or returns {@code null} if the token was not
+     * issued in stateless mode and the user has to be loaded instead.
+     */
+    public AuthenticatedUser toAuthenticatedUser(Claims claims) {
+        if (claims == null || claims.get(CLAIM_USER_ID) == null) {
+            return null;
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        return new AuthenticatedUser(
+                userId.longValue(),
+                claims.getSubject(),
+                claims.get(CLAIM_ROLE, String.class),
+                tokenVersion(claims));
+    }
+    
+    // Tokens issued before versions were signed in count as version 0
+    public int tokenVersion(Claims claims) {
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return tokenVersion != null ? tokenVersion.intValue() : 0;
+    }
+    
     public String extractUsername(String token) {
         try {
             return extractClaim(token, Claims::getSubject);
         } catch (Exception e) {
-            System.out.println("Error extracting username from token: " + e.getMessage());
+            log.atDebug().addKeyValue("error", e.getMessage()).log("could not extract username");
             return null;
         }
     }
@@ -52,7 +140,7 @@ public class JwtUtil {
         try {
             return extractClaim(token, Claims::getExpiration);
         } catch (Exception e) {
-            System.out.println("Error extracting expiration from token: " + e.getMessage());
+            log.atDebug().addKeyValue("error", e.getMessage()).log("could not extract expiration");
             return null;
         }
     }
@@ -64,48 +152,28 @@ public class JwtUtil {
     
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
+            return jwtParser
                     .parseClaimsJws(token)
                     .getBody();
         } catch (ExpiredJwtException e) {
-            System.out.println("JWT token is expired: " + e.getMessage());
+            log.atDebug().addKeyValue("reason", "expired").log("jwt invalid");
             throw e;
         } catch (UnsupportedJwtException e) {
-            System.out.println("JWT token is unsupported: " + e.getMessage());
+            log.atDebug().addKeyValue("reason", "unsupported").log("jwt invalid");
             throw e;
         } catch (MalformedJwtException e) {
-            System.out.println("JWT token is malformed: " + e.getMessage());
+            log.atDebug().addKeyValue("reason", "malformed").log("jwt invalid");
             throw e;
         } catch (SecurityException e) {
-            System.out.println("JWT signature validation failed: " + e.getMessage());
+            log.atDebug().addKeyValue("reason", "signature").log("jwt invalid");
             throw e;
         } catch (IllegalArgumentException e) {
-            System.out.println("JWT token is empty or null: " + e.getMessage());
+            log.atDebug().addKeyValue("reason", "empty").log("jwt invalid");
             throw e;
         }
     }
     
-    private Boolean isTokenExpired(String token) {
-        try {
-            Date expiration = extractExpiration(token);
-            return expiration != null && expiration.before(new Date());
-        } catch (Exception e) {
-            System.out.println("Error checking token expiration: " + e.getMessage());
-            return true;
-        }
-    }
-    
     public Boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            final String username = extractUsername(token);
-            return username != null && 
-                   username.equals(userDetails.getUsername()) && 
-                   !isTokenExpired(token);
-        } catch (Exception e) {
-            System.out.println("Token validation failed: " + e.getMessage());
-            return false;
-        }
+        return validateClaims(verifyToken(token), userDetails);
     }
 }
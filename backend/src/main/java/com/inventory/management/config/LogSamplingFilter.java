@@ -0,0 +1,39 @@
+package com.inventory.management.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that keeps one in {@code rate} events per logger for levels at or below
+ * {@code maxLevel}; more severe events always pass. It sits on the async appender, so it only
+ * runs for events whose level is already enabled and disabled categories cost nothing.
+ */
+public class LogSamplingFilter extends Filter<ILoggingEvent> {
+    
+    private Level maxLevel = Level.DEBUG;
+    private long rate = 1;
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (rate <= 1 || event.getLevel().toInt() > maxLevel.toInt()) {
+            return FilterReply.NEUTRAL;
+        }
+        long sequence = counters.computeIfAbsent(event.getLoggerName(), name -> new AtomicLong()).getAndIncrement();
+        return sequence % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+    
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.DEBUG);
+    }
+    
+    public void setRate(long rate) {
+        this.rate = rate;
+    }
+}
@@ -0,0 +1,63 @@
+package com.inventory.management.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.inventory.management.dto.CreateOrderRequest;
+import com.inventory.management.dto.CreateOrderRequestDeserializer;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+/**
+ * Binding of order creation bodies ({@code POST /api/orders} and each order of
+ * {@code POST /api/orders/batch}): a streaming deserializer for {@link CreateOrderRequest}, which
+ * also caps the bytes it reads, and a size check that answers 413 from the declared Content-Length
+ * before parsing. The check runs after the security filter chain, so rejected responses still
+ * carry CORS headers.
+ */
+@Configuration
+public class OrderRequestConfig {
+
+    @Value("${app.orders.max-lines:1000}")
+    private int maxLines;
+
+    @Value("${app.orders.max-payload-bytes:1048576}")
+    private long maxPayloadBytes;
+
+    @Value("${app.orders.batch.max-payload-bytes:16777216}")
+    private long maxBatchPayloadBytes;
+
+    // Module beans are registered with the application's ObjectMapper
+    @Bean
+    public Module orderRequestModule() {
+        SimpleModule module = new SimpleModule("OrderRequests");
+        module.addDeserializer(CreateOrderRequest.class, new CreateOrderRequestDeserializer(maxLines, maxPayloadBytes, maxBatchPayloadBytes));
+        return module;
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> orderPayloadLimitFilter() {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            long limit = httpRequest.getRequestURI().endsWith("/batch") ? maxBatchPayloadBytes : maxPayloadBytes;
+            if ("POST".equals(httpRequest.getMethod()) && httpRequest.getContentLengthLong() > limit) {
+                HttpServletResponse httpResponse = (HttpServletResponse) response;
+                httpResponse.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                httpResponse.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                httpResponse.getWriter().write("Request body cannot exceed " + limit + " bytes");
+                return;
+            }
+            chain.doFilter(request, response);
+        });
+        registration.addUrlPatterns("/api/orders", "/api/orders/batch");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,31 @@
+package com.inventory.management.config;
+
+import com.inventory.management.service.StockReservationLedger;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes per-product reservation ledger statistics at {@code /actuator/stockledger}.
+ */
+@Component
+@Endpoint(id = "stockledger")
+public class StockLedgerEndpoint {
+    
+    private final StockReservationLedger reservationLedger;
+    
+    public StockLedgerEndpoint(StockReservationLedger reservationLedger) {
+        this.reservationLedger = reservationLedger;
+    }
+    
+    @ReadOperation
+    public Map<String, Object> stockLedger() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", reservationLedger.isEnabled());
+        body.put("products", reservationLedger.getStats());
+        return body;
+    }
+}
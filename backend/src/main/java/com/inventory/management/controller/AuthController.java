@@ -1,9 +1,15 @@
 package com.inventory.management.controller;
 
+import com.inventory.management.config.CurrentUserResolver;
 import com.inventory.management.config.JwtUtil;
 import com.inventory.management.model.User;
+import com.inventory.management.service.LoginThrottle;
+import com.inventory.management.service.PasswordHashingExecutor;
 import com.inventory.management.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,6 +19,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -27,20 +35,106 @@ public class AuthController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    private LoginThrottle loginThrottle;
+    
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+    
+    /**
+     * BCrypt verification runs on {@link PasswordHashingExecutor}; the request thread is released
+     * while it waits. Throttled or saturated requests are answered 429 without hashing.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> loginRequest, HttpServletRequest request) {
+        String username = loginRequest.get("username");
+        if (!loginThrottle.tryAcquire(username, request.getRemoteAddr())) {
+            return CompletableFuture.completedFuture(tooManyRequests("Too many login attempts, please try again later"));
+        }
+        
+        try {
+            return passwordHashingExecutor.submit(() -> authenticate(username, loginRequest.get("password")));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests("Server is busy, please try again later"));
+        }
+    }
+    
+    @PostMapping("/register")
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody User user, HttpServletRequest request) {
+        if (!loginThrottle.tryAcquire(null, request.getRemoteAddr())) {
+            return CompletableFuture.completedFuture(tooManyRequests("Too many requests, please try again later"));
+        }
+        
+        try {
+            return passwordHashingExecutor.submit(() -> {
+                try {
+                    userService.registerUser(user);
+                    return ResponseEntity.ok("User registered successfully");
+                } catch (Exception e) {
+                    return ResponseEntity.badRequest().body(e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests("Server is busy, please try again later"));
+        }
+    }
+    
+    /**
+     * Signs the current user out everywhere: every token issued so far, including the one used for
+     * this request, stops working.
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll() {
+        try {
+            userService.revokeTokens(currentUserResolver.getCurrentUser().getId());
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Changes the current user's password on {@link PasswordHashingExecutor}. All existing tokens are
+     * revoked; the response carries a new one for the caller.
+     */
+    @PostMapping("/password")
+    public CompletableFuture<ResponseEntity<?>> changePassword(@RequestBody Map<String, String> passwordRequest) {
+        Long userId = currentUserResolver.getCurrentUser().getId();
+        try {
+            return passwordHashingExecutor.submit(() -> {
+                try {
+                    User user = userService.changePassword(userId,
+                        passwordRequest.get("currentPassword"), passwordRequest.get("newPassword"));
+                    return ResponseEntity.ok(Map.of("token", jwtUtil.generateToken(user)));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests("Server is busy, please try again later"));
+        }
+    }
+    
+    @GetMapping("/test")
+    public ResponseEntity<?> testAuth() {
+        return ResponseEntity.ok("Authentication is working!");
+    }
+    
+    private ResponseEntity<?> authenticate(String username, String password) {
         try {
             Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                    loginRequest.get("username"), 
-                    loginRequest.get("password")
-                )
+                new UsernamePasswordAuthenticationToken(username, password)
             );
             
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             String token = jwtUtil.generateToken(userDetails);
             
-            User user = userService.findByUsername(userDetails.getUsername());
+            User user = userDetails instanceof User authenticatedUser
+                ? authenticatedUser
+                : userService.findByUsername(userDetails.getUsername());
             
             Map<String, Object> response = new HashMap<>();
             response.put("token", token);
@@ -52,18 +146,9 @@ public class AuthController {
         }
     }
     
-    @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody User user) {
-        try {
-            userService.registerUser(user);
-            return ResponseEntity.ok("User registered successfully");
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
-    }
-    
-    @GetMapping("/test")
-    public ResponseEntity<?> testAuth() {
-        return ResponseEntity.ok("Authentication is working!");
+    private ResponseEntity<?> tooManyRequests(String message) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottle.getWindowSeconds()))
+            .body(message);
     }
 }
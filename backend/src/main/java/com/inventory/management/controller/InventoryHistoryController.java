@@ -1,17 +1,21 @@
 package com.inventory.management.controller;
 
-import com.inventory.management.model.InventoryHistory;
+import com.inventory.management.config.CurrentUserResolver;
+import com.inventory.management.dto.HistoryEntryView;
 import com.inventory.management.model.Product;
 import com.inventory.management.model.User;
-import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.DataExportService;
 import com.inventory.management.service.InventoryHistoryService;
 import com.inventory.management.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,13 +30,16 @@ public class InventoryHistoryController {
     private ProductService productService;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
+    
+    @Autowired
+    private DataExportService dataExportService;
     
     @GetMapping
-    public ResponseEntity<List<InventoryHistory>> getAllHistory() {
+    public ResponseEntity<List<HistoryEntryView>> getAllHistory() {
         try {
             User currentUser = getCurrentUser();
-            List<InventoryHistory> history = inventoryHistoryService.getAllHistoryByUser(currentUser);
+            List<HistoryEntryView> history = inventoryHistoryService.getAllHistoryByUser(currentUser);
             return ResponseEntity.ok(history);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -40,12 +47,12 @@ public class InventoryHistoryController {
     }
     
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<InventoryHistory>> getHistoryByProduct(@PathVariable Long productId) {
+    public ResponseEntity<List<HistoryEntryView>> getHistoryByProduct(@PathVariable Long productId) {
         try {
             User currentUser = getCurrentUser();
             Optional<Product> product = productService.getProductByIdAndUser(productId, currentUser);
             if (product.isPresent()) {
-                List<InventoryHistory> history = inventoryHistoryService.getHistoryByProductAndUser(product.get(), currentUser);
+                List<HistoryEntryView> history = inventoryHistoryService.getHistoryByProductAndUser(product.get(), currentUser);
                 return ResponseEntity.ok(history);
             }
             return ResponseEntity.notFound().build();
@@ -55,20 +62,40 @@ public class InventoryHistoryController {
     }
     
     @GetMapping("/action/{action}")
-    public ResponseEntity<List<InventoryHistory>> getHistoryByAction(@PathVariable String action) {
+    public ResponseEntity<List<HistoryEntryView>> getHistoryByAction(@PathVariable String action) {
         try {
             User currentUser = getCurrentUser();
-            List<InventoryHistory> history = inventoryHistoryService.getHistoryByActionAndUser(action, currentUser);
+            List<HistoryEntryView> history = inventoryHistoryService.getHistoryByActionAndUser(action, currentUser);
             return ResponseEntity.ok(history);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    /**
+     * Streams the current user's history, optionally limited to entries created between {@code from}
+     * and {@code to} (inclusive days), as NDJSON or CSV.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        DataExportService.Format exportFormat;
+        try {
+            exportFormat = DataExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        User currentUser = getCurrentUser();
+        StreamingResponseBody body = out -> dataExportService.exportHistory(currentUser, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"history." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        return currentUserResolver.getCurrentUser();
     }
 }
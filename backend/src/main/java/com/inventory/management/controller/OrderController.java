@@ -1,52 +1,137 @@
 package com.inventory.management.controller;
 
-import com.inventory.management.dto.OrderDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.inventory.management.config.CurrentUserResolver;
+import com.inventory.management.dto.BatchOrderRequest;
+import com.inventory.management.dto.BatchOrderResponse;
+import com.inventory.management.dto.BulkOrderStatusRequest;
+import com.inventory.management.dto.CreateOrderRequest;
+import com.inventory.management.dto.CreateOrderRequestDeserializer;
+import com.inventory.management.dto.OrderCursor;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.dto.OrderPage;
+import com.inventory.management.dto.OrderStatusSummary;
+import com.inventory.management.dto.OrderStatusUpdateResult;
+import com.inventory.management.dto.OrderStatusView;
+import com.inventory.management.dto.OrderSubmissionDTO;
+import com.inventory.management.dto.OrderView;
 import com.inventory.management.model.Order;
 import com.inventory.management.model.OrderItem;
 import com.inventory.management.model.Product;
 import com.inventory.management.model.User;
 import com.inventory.management.repository.ProductRepository;
-import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.DataExportService;
+import com.inventory.management.service.IdempotencyKeyConflictException;
+import com.inventory.management.service.InsufficientStockException;
+import com.inventory.management.service.OrderIdempotencyService;
 import com.inventory.management.service.OrderService;
+import com.inventory.management.service.OrderStatusSummaryService;
+import com.inventory.management.service.OrderSubmissionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
     
+    private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+    
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Autowired
     private OrderService orderService;
     
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
     
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private OrderSubmissionService orderSubmissionService;
+    
+    @Autowired
+    private OrderStatusSummaryService orderStatusSummaryService;
+    
+    @Autowired
+    private DataExportService dataExportService;
+    
+    @Value("${app.orders.batch.max-orders:1000}")
+    private int maxBatchOrders;
+    
+    @Value("${app.orders.status.max-orders:1000}")
+    private int maxStatusUpdateOrders;
+    
+    @Value("${app.orders.page.default-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${app.orders.page.max-size:500}")
+    private int maxPageSize;
+    
     @GetMapping
-    public ResponseEntity<List<OrderDTO>> getAllOrders() {
+    public ResponseEntity<List<OrderView>> getAllOrders(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUser();
-            List<Order> orders = orderService.getOrdersByUser(currentUser);
-            List<OrderDTO> orderDTOs = orders.stream()
-                    .map(OrderDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(orderDTOs);
+            OrderPage page = orderService.getOrdersByUser(currentUser, OrderCursor.decode(cursor), pageSize(limit));
+            return withNextCursor(page).body(page.orders());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<OrderStatusSummary> getStatusSummary() {
+        try {
+            return ResponseEntity.ok(orderStatusSummaryService.getSummary(getCurrentUser()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    /**
+     * Streams every order line of the current user, optionally limited to order dates between
+     * {@code from} and {@code to} (inclusive days), as NDJSON or CSV.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        DataExportService.Format exportFormat;
+        try {
+            exportFormat = DataExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Resolved on the request thread; the body is written on another one
+        User currentUser = getCurrentUser();
+        StreamingResponseBody body = out -> dataExportService.exportOrders(currentUser, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
         try {
@@ -60,18 +145,38 @@ public class OrderController {
     }
     
     @GetMapping("/user")
-    public ResponseEntity<List<Order>> getOrdersByUser() {
-        User currentUser = getCurrentUser();
-        List<Order> orders = orderService.getOrdersByUser(currentUser);
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<OrderView>> getOrdersByUser(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit) {
+        try {
+            User currentUser = getCurrentUser();
+            OrderPage page = orderService.getOrdersByUser(currentUser, OrderCursor.decode(cursor), pageSize(limit));
+            return withNextCursor(page).body(page.orders());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/recent")
+    public ResponseEntity<List<OrderView>> getRecentOrders(@RequestParam(defaultValue = "30") int days,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit) {
+        try {
+            User currentUser = getCurrentUser();
+            OrderPage page = orderService.getRecentOrdersByUser(currentUser, days, OrderCursor.decode(cursor), pageSize(limit));
+            return withNextCursor(page).body(page.orders());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
     }
     
     @GetMapping("/test")
     public ResponseEntity<?> testOrderCreation() {
         try {
-            System.out.println("=== TEST ORDER CREATION ===");
             User currentUser = getCurrentUser();
-            System.out.println("Current user: " + currentUser.getUsername() + " (ID: " + currentUser.getId() + ")");
             
             // Get a product for testing
             List<Product> products = productRepository.findByUserOrderByName(currentUser);
@@ -80,7 +185,6 @@ public class OrderController {
             }
             
             Product testProduct = products.get(0);
-            System.out.println("Test product: " + testProduct.getName() + " (ID: " + testProduct.getId() + ", Stock: " + testProduct.getQuantity() + ")");
             
             // Create a simple order
             Order testOrder = new Order();
@@ -93,120 +197,89 @@ public class OrderController {
             OrderItem testItem = new OrderItem(testProduct, 1, testProduct.getPrice());
             testOrder.addOrderItem(testItem);
             
-            System.out.println("Test order created with " + testOrder.getOrderItems().size() + " items");
-            System.out.println("Test order total: " + testOrder.getTotalAmount());
-            
             // Try to save the order
             Order savedOrder = orderService.createOrder(testOrder, currentUser);
-            System.out.println("Test order saved successfully with ID: " + savedOrder.getId());
+            log.atInfo().addKeyValue("userId", currentUser.getId()).addKeyValue("orderId", savedOrder.getId())
+                .log("test order created");
             
             return ResponseEntity.ok("Test order created successfully with ID: " + savedOrder.getId());
-            
+        
         } catch (Exception e) {
-            System.out.println("=== TEST ORDER CREATION ERROR ===");
-            System.out.println("Error: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Test order creation failed", e);
             return ResponseEntity.internalServerError().body("Test order creation failed: " + e.getMessage());
         }
     }
     
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> orderRequest) {
+    public ResponseEntity<?> createOrder(@RequestBody CreateOrderRequest orderRequest,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            System.out.println("=== ORDER CREATION START ===");
-            System.out.println("Creating order with request: " + orderRequest);
-            System.out.println("Request class: " + orderRequest.getClass().getName());
             User currentUser = getCurrentUser();
-            System.out.println("Current user: " + currentUser.getUsername() + " (ID: " + currentUser.getId() + ")");
-            
-            Order order = new Order();
-            order.setUser(currentUser);
-            order.setStatus("PENDING");
-            System.out.println("Created order object with user: " + currentUser.getUsername());
-            
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> orderItemsData = (List<Map<String, Object>>) orderRequest.get("orderItems");
-            System.out.println("Order items data type: " + (orderItemsData != null ? orderItemsData.getClass().getName() : "null"));
             
-            if (orderItemsData == null || orderItemsData.isEmpty()) {
-                System.out.println("Order items data is null or empty");
-                return ResponseEntity.badRequest().body("Order must contain at least one item");
+            if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > OrderIdempotencyService.MAX_KEY_LENGTH)) {
+                return ResponseEntity.badRequest().body("Idempotency-Key must be 1 to " + OrderIdempotencyService.MAX_KEY_LENGTH + " characters");
             }
             
-            System.out.println("Order items data is valid, size: " + orderItemsData.size());
+            // The body was checked for shape while it was parsed; missing values are reported below
+            List<OrderItemRequest> items = orderRequest.getOrderItems();
             
-            System.out.println("Processing " + orderItemsData.size() + " order items");
-            System.out.println("Order items data: " + orderItemsData);
-            BigDecimal totalAmount = BigDecimal.ZERO;
-            
-            for (int i = 0; i < orderItemsData.size(); i++) {
-                Map<String, Object> itemData = orderItemsData.get(i);
-                System.out.println("Processing item " + (i + 1) + ": " + itemData);
-                System.out.println("Item product data: " + itemData.get("product"));
-                @SuppressWarnings("unchecked")
-                Map<String, Object> productData = (Map<String, Object>) itemData.get("product");
-                System.out.println("Product data: " + productData);
-                
-                if (productData == null) {
-                    System.out.println("ERROR: Product data is null for item " + (i + 1));
-                    return ResponseEntity.badRequest().body("Product data is missing for item " + (i + 1));
-                }
-                
-                Long productId = Long.valueOf(productData.get("id").toString());
-                Integer quantity = Integer.valueOf(itemData.get("quantity").toString());
-                BigDecimal unitPrice = new BigDecimal(itemData.get("unitPrice").toString());
-                System.out.println("Parsed values - Product ID: " + productId + ", Quantity: " + quantity + ", Unit Price: " + unitPrice);
-                
-                System.out.println("Current user ID: " + currentUser.getId());
-                
-                Product product = productRepository.findByIdAndUser(productId, currentUser)
-                    .orElseThrow(() -> new RuntimeException("Product not found or you don't have access to it. Product ID: " + productId + ", User: " + currentUser.getUsername()));
-                
-                System.out.println("Found product: " + product.getName() + " with stock: " + product.getQuantity() + ", Product user ID: " + product.getUser().getId());
-                
-                OrderItem orderItem = new OrderItem(product, quantity, unitPrice);
-                order.addOrderItem(orderItem);
-                System.out.println("Added order item - Product: " + product.getName() + ", Quantity: " + quantity + ", Unit Price: " + unitPrice);
-                
-                totalAmount = totalAmount.add(orderItem.getTotalPrice());
-                System.out.println("Updated total amount: " + totalAmount);
+            if (orderSubmissionService.isEnabled()) {
+                // Placed later by a worker; the client polls the status URL
+                OrderSubmissionDTO submission = new OrderSubmissionDTO(
+                    orderSubmissionService.enqueue(items, currentUser, idempotencyKey));
+                return ResponseEntity.accepted().location(URI.create(submission.getStatusUrl())).body(submission);
             }
             
-            order.setTotalAmount(totalAmount);
-            System.out.println("Final total amount: " + totalAmount);
-            System.out.println("Order items count: " + order.getOrderItems().size());
-            System.out.println("Order items: " + order.getOrderItems());
-            System.out.println("Order items details:");
-            order.getOrderItems().forEach(item -> {
-                System.out.println("  - Product: " + item.getProduct().getName() + ", Quantity: " + item.getQuantity() + ", Unit Price: " + item.getUnitPrice() + ", Total: " + item.getTotalPrice());
-            });
-            
-            System.out.println("About to call orderService.createOrder...");
-            Order createdOrder = orderService.createOrder(order, currentUser);
-            System.out.println("Order created successfully with ID: " + createdOrder.getId());
-            System.out.println("Order details - Number: " + createdOrder.getOrderNumber() + ", Status: " + createdOrder.getStatus() + ", Total: " + createdOrder.getTotalAmount());
-            System.out.println("Order items in created order: " + createdOrder.getOrderItems().size());
-            System.out.println("Created order items details:");
-            createdOrder.getOrderItems().forEach(item -> {
-                System.out.println("  - Product: " + item.getProduct().getName() + ", Quantity: " + item.getQuantity() + ", Unit Price: " + item.getUnitPrice() + ", Total: " + item.getTotalPrice());
-            });
-            System.out.println("=== ORDER CREATION SUCCESS ===");
+            // Products for all lines are resolved with one query inside the order transaction
+            Order createdOrder = orderService.createOrder(items, currentUser, idempotencyKey);
+            log.atDebug().addKeyValue("userId", currentUser.getId()).addKeyValue("orderId", createdOrder.getId())
+                .addKeyValue("items", createdOrder.getOrderItems().size()).log("order request completed");
             return ResponseEntity.ok(createdOrder);
-            
+        
+        } catch (InsufficientStockException e) {
+            log.atDebug().addKeyValue("shortfalls", e.getShortfalls().size()).log("order rejected, insufficient stock");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IdempotencyKeyConflictException e) {
+            log.atDebug().addKeyValue("error", e.getMessage()).log("order rejected, idempotency key conflict");
+            return ResponseEntity.status(e.isInProgress() ? HttpStatus.CONFLICT : HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
         } catch (RuntimeException e) {
-            System.out.println("=== RUNTIME EXCEPTION ===");
-            System.out.println("Runtime exception during order creation: " + e.getMessage());
-            e.printStackTrace();
+            log.atDebug().addKeyValue("error", e.getMessage()).log("order rejected");
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
-            System.out.println("=== GENERAL EXCEPTION ===");
-            System.out.println("General exception during order creation: " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("Exception type: " + e.getClass().getName());
-            if (e.getCause() != null) {
-                System.out.println("Cause: " + e.getCause().getMessage());
-                e.getCause().printStackTrace();
+            log.error("Order creation failed", e);
+            return ResponseEntity.internalServerError().body("Internal server error occurred: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/submissions/{id}")
+    public ResponseEntity<OrderSubmissionDTO> getSubmission(@PathVariable Long id) {
+        User currentUser = getCurrentUser();
+        return orderSubmissionService.getSubmission(id, currentUser)
+                .map(submission -> ResponseEntity.ok(new OrderSubmissionDTO(submission)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<?> createOrders(@RequestBody BatchOrderRequest batchRequest) {
+        try {
+            User currentUser = getCurrentUser();
+            
+            if (batchRequest == null || batchRequest.getOrders() == null || batchRequest.getOrders().isEmpty()) {
+                return ResponseEntity.badRequest().body("Batch must contain at least one order");
             }
+            if (batchRequest.getOrders().size() > maxBatchOrders) {
+                return ResponseEntity.badRequest().body("Batch cannot contain more than " + maxBatchOrders + " orders");
+            }
+            
+            // Each order succeeds or fails on its own; see the per-order results
+            BatchOrderResponse response = orderService.createOrders(batchRequest.getOrders(), currentUser);
+            return ResponseEntity.ok(response);
+        
+        } catch (RuntimeException e) {
+            log.atDebug().addKeyValue("error", e.getMessage()).log("order batch rejected");
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Order batch failed", e);
             return ResponseEntity.internalServerError().body("Internal server error occurred: " + e.getMessage());
         }
     }
@@ -215,38 +288,89 @@ public class OrderController {
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> request) {
         try {
             User currentUser = getCurrentUser();
-            String status = request.get("status");
+            OrderStatusUpdateResult result = orderService.updateOrderStatus(List.of(id), request.get("status"), currentUser);
             
-            Optional<Order> orderOpt = orderService.getOrderByIdAndUser(id, currentUser);
-            if (orderOpt.isEmpty()) {
+            if (!result.notFound().isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
+            if (!result.rejected().isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                    "Cannot change order status from " + result.rejected().get(0).status() + " to " + result.status());
+            }
+            return ResponseEntity.ok(new OrderStatusView(id, result.status()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Error updating order status: " + e.getMessage());
+        }
+    }
+    
+    @PutMapping("/status")
+    public ResponseEntity<?> updateOrderStatuses(@RequestBody BulkOrderStatusRequest request) {
+        try {
+            User currentUser = getCurrentUser();
+            
+            if (request.getOrderIds() == null || request.getOrderIds().isEmpty()) {
+                return ResponseEntity.badRequest().body("At least one order id is required");
+            }
+            if (request.getOrderIds().size() > maxStatusUpdateOrders) {
+                return ResponseEntity.badRequest().body("Cannot update more than " + maxStatusUpdateOrders + " orders at once");
+            }
             
-            Order updatedOrder = orderService.updateOrderStatus(id, status);
-            return ResponseEntity.ok(updatedOrder);
+            // Orders not moved are listed in the result rather than failing the request
+            return ResponseEntity.ok(orderService.updateOrderStatus(request.getOrderIds(), request.getStatus(), currentUser));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
+            log.error("Bulk order status update failed", e);
             return ResponseEntity.internalServerError().body("Error updating order status: " + e.getMessage());
         }
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status) {
+    public ResponseEntity<List<OrderView>> getOrdersByStatus(@PathVariable String status,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUser();
-            List<Order> orders = orderService.getOrdersByStatusAndUser(status, currentUser);
-            return ResponseEntity.ok(orders);
+            OrderPage page = orderService.getOrdersByStatusAndUser(status, currentUser, OrderCursor.decode(cursor), pageSize(limit));
+            return withNextCursor(page).body(page.orders());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> handleUnreadableBody(HttpMessageNotReadableException e) {
+        String message = e.getMostSpecificCause() instanceof JsonProcessingException json
+                ? json.getOriginalMessage()
+                : "Malformed request body";
+        log.atDebug().addKeyValue("error", message).log("order request rejected");
+        if (e.getMostSpecificCause() instanceof CreateOrderRequestDeserializer.PayloadTooLargeException) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(message);
+        }
+        return ResponseEntity.badRequest().body(message);
+    }
+    
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+    
+    // Listings stay plain JSON arrays; the cursor for the next page travels in a header
+    private ResponseEntity.BodyBuilder withNextCursor(OrderPage page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return builder;
+    }
+    
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        System.out.println("Getting current user for username: " + username);
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("User not found: " + username));
-        System.out.println("Found user: " + user.getUsername() + " with ID: " + user.getId());
-        return user;
+        return currentUserResolver.getCurrentUser();
     }
 }
@@ -1,40 +1,72 @@
 package com.inventory.management.controller;
 
+import com.inventory.management.config.CurrentUserResolver;
+import com.inventory.management.dto.LowStockItem;
+import com.inventory.management.dto.ProductCursor;
 import com.inventory.management.dto.ProductDTO;
+import com.inventory.management.dto.ProductFilter;
+import com.inventory.management.dto.ProductPage;
+import com.inventory.management.dto.ProductSort;
+import com.inventory.management.dto.ProductSuggestion;
+import com.inventory.management.dto.ProductView;
 import com.inventory.management.model.Product;
 import com.inventory.management.model.User;
-import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.LowStockMonitor;
 import com.inventory.management.service.ProductService;
+import com.inventory.management.service.ProductSuggestIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
     
+    // Search's default order: best matches first (see ProductSearchIndex)
+    private static final String RELEVANCE = "relevance";
+    
     @Autowired
     private ProductService productService;
     
     @Autowired
-    private UserRepository userRepository;
+    private ProductSuggestIndex productSuggestIndex;
+    
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+    
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+    
+    @Value("${app.products.page.default-size:100}")
+    private int defaultPageSize;
+    
+    @Value("${app.products.page.max-size:1000}")
+    private int maxPageSize;
+    
+    @Value("${app.products.suggest.default-limit:10}")
+    private int defaultSuggestions;
+    
+    @Value("${app.products.suggest.max-limit:50}")
+    private int maxSuggestions;
     
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+    public ResponseEntity<List<ProductView>> getAllProducts(@RequestParam(defaultValue = "name") String sort,
+                                                            @RequestParam(defaultValue = "asc") String direction,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUser();
-            List<Product> products = productService.getAllProductsByUser(currentUser);
-            List<ProductDTO> productDTOs = products.stream()
-                    .map(ProductDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(productDTOs);
+            ProductPage page = getPage(currentUser, ProductFilter.all(), sort, direction, cursor, limit);
+            return withNextCursor(page).body(page.products());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -118,51 +150,124 @@ public class ProductController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<ProductDTO>> searchProducts(@RequestParam String name) {
+    public ResponseEntity<List<ProductView>> searchProducts(@RequestParam String name,
+                                                            @RequestParam(defaultValue = RELEVANCE) String sort,
+                                                            @RequestParam(defaultValue = "asc") String direction,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUser();
-            List<Product> products = productService.searchProductsByUser(name, currentUser);
-            List<ProductDTO> productDTOs = products.stream()
-                    .map(ProductDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(productDTOs);
+            ProductPage page = RELEVANCE.equalsIgnoreCase(sort)
+                    ? productService.searchProducts(currentUser, name, cursor, pageSize(limit))
+                    : getPage(currentUser, ProductFilter.nameContains(name), sort, direction, cursor, limit);
+            return withNextCursor(page).body(page.products());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<ProductView>> getProductsByCategory(@PathVariable String category,
+                                                                   @RequestParam(defaultValue = "name") String sort,
+                                                                   @RequestParam(defaultValue = "asc") String direction,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUser();
-            List<Product> products = productService.getProductsByCategoryAndUser(category, currentUser);
-            List<ProductDTO> productDTOs = products.stream()
-                    .map(ProductDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(productDTOs);
+            ProductPage page = getPage(currentUser, ProductFilter.category(category), sort, direction, cursor, limit);
+            return withNextCursor(page).body(page.products());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(@RequestParam String prefix,
+                                                                   @RequestParam(required = false) Integer limit) {
+        try {
+            User currentUser = getCurrentUser();
+            int size = limit == null ? defaultSuggestions : Math.max(1, Math.min(limit, maxSuggestions));
+            return ResponseEntity.ok(productSuggestIndex.suggest(currentUser, prefix, size));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // Without a threshold: each product's own reorder threshold, lowest quantity first. The set comes
+    // from LowStockMonitor; the products are then read by id so the response keeps the ProductDTO shape.
+    // With one: that threshold for every product, paged from the database.
     @GetMapping("/low-stock")
-    public ResponseEntity<List<ProductDTO>> getLowStockProducts(@RequestParam(defaultValue = "10") Integer threshold) {
+    public ResponseEntity<?> getLowStockProducts(@RequestParam(required = false) Integer threshold,
+                                                 @RequestParam(defaultValue = "quantity") String sort,
+                                                 @RequestParam(defaultValue = "asc") String direction,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit) {
         try {
             User currentUser = getCurrentUser();
-            List<Product> products = productService.getLowStockProducts(currentUser, threshold);
-            List<ProductDTO> productDTOs = products.stream()
-                    .map(ProductDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(productDTOs);
+            if (threshold == null) {
+                List<Long> ids = lowStockMonitor.getLowStock(currentUser).stream().map(LowStockItem::id).toList();
+                List<ProductDTO> products = productService.getProductsByIds(ids, currentUser).stream()
+                        .map(ProductDTO::new)
+                        .toList();
+                return ResponseEntity.ok(products);
+            }
+            ProductPage page = getPage(currentUser, ProductFilter.lowStock(threshold), sort, direction, cursor, limit);
+            return withNextCursor(page).body(page.products());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    // Server-sent events: a snapshot of the low-stock set, then every product entering or leaving it
+    @GetMapping(path = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLowStockProducts() {
+        try {
+            User currentUser = getCurrentUser();
+            return ResponseEntity.ok(lowStockMonitor.subscribe(currentUser));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    private ProductPage getPage(User user, ProductFilter filter, String sort, String direction, String cursor, Integer limit) {
+        ProductSort productSort = ProductSort.parse(sort);
+        boolean descending = parseDirection(direction);
+        return productService.getProductPage(user, filter, productSort, descending,
+            ProductCursor.decode(cursor, productSort, descending), pageSize(limit));
+    }
+    
+    private static boolean parseDirection(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown direction: " + direction + " (expected asc or desc)");
+    }
+    
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+    
+    private ResponseEntity.BodyBuilder withNextCursor(ProductPage page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            builder.header(OrderController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return builder;
+    }
+    
     private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("User not found: " + username));
+        return currentUserResolver.getCurrentUser();
     }
 }
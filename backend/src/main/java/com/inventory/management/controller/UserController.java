@@ -0,0 +1,36 @@
+package com.inventory.management.controller;
+
+import com.inventory.management.model.User;
+import com.inventory.management.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * User administration, restricted to {@code ADMIN} in {@code SecurityConfig}.
+ */
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+    
+    @Autowired
+    private UserService userService;
+    
+    /**
+     * Changes a user's role. The user's cached principal is evicted after commit, so the new role
+     * applies from their next request; stateless tokens, which carry the role, are revoked.
+     */
+    @PutMapping("/{id}/role")
+    public ResponseEntity<?> updateRole(@PathVariable Long id, @RequestBody Map<String, String> request) {
+        try {
+            User user = userService.updateUserRole(id, request.get("role"));
+            return ResponseEntity.ok(Map.of("id", user.getId(), "username", user.getUsername(), "role", user.getRole()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
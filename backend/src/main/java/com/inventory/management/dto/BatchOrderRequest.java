@@ -0,0 +1,22 @@
+package com.inventory.management.dto;
+
+import java.util.List;
+
+public class BatchOrderRequest {
+    private List<CreateOrderRequest> orders;
+
+    public BatchOrderRequest() {}
+
+    public BatchOrderRequest(List<CreateOrderRequest> orders) {
+        this.orders = orders;
+    }
+
+    // Getters and setters
+    public List<CreateOrderRequest> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<CreateOrderRequest> orders) {
+        this.orders = orders;
+    }
+}
@@ -0,0 +1,42 @@
+package com.inventory.management.dto;
+
+import java.util.List;
+
+public class BatchOrderResponse {
+    private int succeeded;
+    private int failed;
+    private List<BatchOrderResult> results;
+
+    public BatchOrderResponse() {}
+
+    public BatchOrderResponse(List<BatchOrderResult> results) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(BatchOrderResult::isSuccess).count();
+        this.failed = results.size() - succeeded;
+    }
+
+    // Getters and setters
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchOrderResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchOrderResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,83 @@
+package com.inventory.management.dto;
+
+import com.inventory.management.model.Order;
+
+import java.math.BigDecimal;
+
+public class BatchOrderResult {
+    private int index;
+    private boolean success;
+    private Long orderId;
+    private String orderNumber;
+    private BigDecimal totalAmount;
+    private String error;
+
+    public BatchOrderResult() {}
+
+    public static BatchOrderResult succeeded(int index, Order order) {
+        BatchOrderResult result = new BatchOrderResult();
+        result.index = index;
+        result.success = true;
+        result.orderId = order.getId();
+        result.orderNumber = order.getOrderNumber();
+        result.totalAmount = order.getTotalAmount();
+        return result;
+    }
+
+    public static BatchOrderResult failed(int index, String error) {
+        BatchOrderResult result = new BatchOrderResult();
+        result.index = index;
+        result.success = false;
+        result.error = error;
+        return result;
+    }
+
+    // Getters and setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getOrderNumber() {
+        return orderNumber;
+    }
+
+    public void setOrderNumber(String orderNumber) {
+        this.orderNumber = orderNumber;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,32 @@
+package com.inventory.management.dto;
+
+import java.util.List;
+
+public class BulkOrderStatusRequest {
+    private List<Long> orderIds;
+    private String status;
+
+    public BulkOrderStatusRequest() {}
+
+    public BulkOrderStatusRequest(List<Long> orderIds, String status) {
+        this.orderIds = orderIds;
+        this.status = status;
+    }
+
+    // Getters and setters
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,22 @@
+package com.inventory.management.dto;
+
+import java.util.List;
+
+public class CreateOrderRequest {
+    private List<OrderItemRequest> orderItems;
+
+    public CreateOrderRequest() {}
+
+    public CreateOrderRequest(List<OrderItemRequest> orderItems) {
+        this.orderItems = orderItems;
+    }
+
+    // Getters and setters
+    public List<OrderItemRequest> getOrderItems() {
+        return orderItems;
+    }
+
+    public void setOrderItems(List<OrderItemRequest> orderItems) {
+        this.orderItems = orderItems;
+    }
+}
@@ -0,0 +1,180 @@
+package com.inventory.management.dto;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a {@link CreateOrderRequest} straight off the token stream, without an intermediate tree.
+ * The shape is checked while reading: a malformed line or an order with more than {@code maxLines}
+ * lines fails the whole request at the offending token, before the rest of the body is read.
+ * Missing values are left null for {@code OrderService} to report; a quantity below 1 is rejected
+ * here. Unknown fields are skipped.
+ * <p>
+ * Bytes read are capped as well, so bodies without a Content-Length (chunked) cannot get past the
+ * size limit: a standalone order may not extend past {@code maxPayloadBytes} of the body, an order
+ * inside a batch past {@code maxBatchPayloadBytes}. Exceeding it fails with
+ * {@link PayloadTooLargeException}.
+ * <p>
+ * Lines accept {@code productId} or the frontend's {@code {"product": {"id": ...}}}; numbers may
+ * also be sent as numeric strings.
+ */
+public class CreateOrderRequestDeserializer extends StdDeserializer<CreateOrderRequest> {
+
+    private final int maxLines;
+    private final long maxPayloadBytes;
+    private final long maxBatchPayloadBytes;
+
+    public CreateOrderRequestDeserializer(int maxLines, long maxPayloadBytes, long maxBatchPayloadBytes) {
+        super(CreateOrderRequest.class);
+        this.maxLines = maxLines;
+        this.maxPayloadBytes = maxPayloadBytes;
+        this.maxBatchPayloadBytes = maxBatchPayloadBytes;
+    }
+
+    @Override
+    public CreateOrderRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            return fail(ctxt, "Order request must be a JSON object");
+        }
+        // Orders of a batch are nested in its "orders" array; a standalone order is the whole body
+        long limit = p.getParsingContext().getParent().inRoot() ? maxPayloadBytes : maxBatchPayloadBytes;
+        CreateOrderRequest request = new CreateOrderRequest();
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            if ("orderItems".equals(field) && token != JsonToken.VALUE_NULL) {
+                request.setOrderItems(readLines(p, ctxt, limit));
+            } else {
+                p.skipChildren();
+            }
+            checkBytesRead(p, limit);
+        }
+        return request;
+    }
+
+    private List<OrderItemRequest> readLines(JsonParser p, DeserializationContext ctxt, long limit) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            return fail(ctxt, "orderItems must be an array");
+        }
+        List<OrderItemRequest> lines = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (lines.size() == maxLines) {
+                return fail(ctxt, "Order cannot contain more than " + maxLines + " items");
+            }
+            lines.add(readLine(p, ctxt, lines.size() + 1, limit));
+        }
+        return lines;
+    }
+
+    private OrderItemRequest readLine(JsonParser p, DeserializationContext ctxt, int line, long limit) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return fail(ctxt, "Item " + line + " must be a JSON object");
+        }
+        OrderItemRequest item = new OrderItemRequest();
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            if (token != JsonToken.VALUE_NULL) {
+                switch (field) {
+                    case "productId" -> item.setProductId(readLong(p, ctxt, line, field));
+                    case "product" -> item.setProductId(readProductId(p, ctxt, line));
+                    case "quantity" -> item.setQuantity(readQuantity(p, ctxt, line));
+                    case "unitPrice" -> item.setUnitPrice(readDecimal(p, ctxt, line));
+                    default -> p.skipChildren();
+                }
+            }
+            checkBytesRead(p, limit);
+        }
+        return item;
+    }
+
+    private void checkBytesRead(JsonParser p, long limit) throws IOException {
+        JsonLocation location = p.currentLocation();
+        // Byte offsets are only tracked for byte sources; character sources report characters
+        long read = location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+        if (read > limit) {
+            throw new PayloadTooLargeException(p, "Request body cannot exceed " + limit + " bytes");
+        }
+    }
+
+    private int readQuantity(JsonParser p, DeserializationContext ctxt, int line) throws IOException {
+        int quantity = readInt(p, ctxt, line, "quantity");
+        if (quantity <= 0) {
+            return fail(ctxt, "Quantity must be positive for item " + line);
+        }
+        return quantity;
+    }
+
+    private Long readProductId(JsonParser p, DeserializationContext ctxt, int line) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return fail(ctxt, "Product data for item " + line + " must be a JSON object");
+        }
+        Long id = null;
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            if ("id".equals(field) && token != JsonToken.VALUE_NULL) {
+                id = readLong(p, ctxt, line, "product.id");
+            } else {
+                p.skipChildren();
+            }
+        }
+        return id;
+    }
+
+    private long readLong(JsonParser p, DeserializationContext ctxt, int line, String field) throws IOException {
+        try {
+            if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return p.getLongValue();
+            }
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return Long.parseLong(p.getText().trim());
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        return fail(ctxt, "Invalid " + field + " for item " + line);
+    }
+
+    private int readInt(JsonParser p, DeserializationContext ctxt, int line, String field) throws IOException {
+        long value = readLong(p, ctxt, line, field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return fail(ctxt, "Invalid " + field + " for item " + line);
+        }
+        return (int) value;
+    }
+
+    private BigDecimal readDecimal(JsonParser p, DeserializationContext ctxt, int line) throws IOException {
+        try {
+            if (p.currentToken().isNumeric()) {
+                return p.getDecimalValue();
+            }
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return new BigDecimal(p.getText().trim());
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        return fail(ctxt, "Invalid unitPrice for item " + line);
+    }
+
+    private <T> T fail(DeserializationContext ctxt, String message) throws IOException {
+        return ctxt.reportInputMismatch(CreateOrderRequest.class, message);
+    }
+
+    /**
+     * Thrown once more of the body has been read than the order's size limit allows; answered 413.
+     */
+    public static class PayloadTooLargeException extends JsonMappingException {
+
+        public PayloadTooLargeException(JsonParser p, String message) {
+            super(p, message);
+        }
+    }
+}
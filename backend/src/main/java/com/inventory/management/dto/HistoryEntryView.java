@@ -0,0 +1,10 @@
+package com.inventory.management.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only inventory history row for list endpoints, with the product's id and name joined in.
+ */
+public record HistoryEntryView(Long id, Long productId, String productName, String action, Integer previousQuantity,
+                               Integer newQuantity, String description, LocalDateTime createdAt) {
+}
@@ -0,0 +1,16 @@
+package com.inventory.management.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One relayed inventory change. Delivery is at least once, so consumers should ignore event ids they
+ * have already seen. Events are not guaranteed to arrive in the order their changes committed, not
+ * even per product (see {@link com.inventory.management.service.InventoryOutboxRelay}); a consumer
+ * keeping per-product stock should chain events by quantity, applying one only when its
+ * {@code previousQuantity} matches the quantity it holds, and re-read the product when no pending
+ * event does.
+ */
+public record InventoryChangeEvent(Long eventId, Long productId, Long userId, String action,
+                                   Integer previousQuantity, Integer newQuantity, String description,
+                                   LocalDateTime occurredAt) {
+}
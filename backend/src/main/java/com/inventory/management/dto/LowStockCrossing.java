@@ -0,0 +1,13 @@
+package com.inventory.management.dto;
+
+/**
+ * Pushed to low-stock subscribers when a product enters or leaves the low-stock set. A product
+ * that is deleted while low leaves it.
+ */
+public record LowStockCrossing(Direction direction, LowStockItem product) {
+
+    public enum Direction {
+        ENTERED,
+        LEFT
+    }
+}
@@ -0,0 +1,8 @@
+package com.inventory.management.dto;
+
+/**
+ * A product at or below its reorder threshold; {@code reorderThreshold} is the effective one,
+ * the configured default where the product has none.
+ */
+public record LowStockItem(Long id, String sku, String name, Integer quantity, Integer reorderThreshold) {
+}
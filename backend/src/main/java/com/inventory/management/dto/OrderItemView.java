@@ -0,0 +1,23 @@
+package com.inventory.management.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only order line with its product, serialises like {@link OrderItemDTO}. {@code orderId} only
+ * groups lines under their order and is not written out.
+ */
+public record OrderItemView(@JsonIgnore Long orderId, Long id, ProductView product, Integer quantity,
+                            BigDecimal unitPrice, BigDecimal totalPrice) {
+
+    // Flat form for JPQL constructor expressions, which cannot build the nested product
+    public OrderItemView(Long orderId, Long id, Integer quantity, BigDecimal unitPrice, BigDecimal totalPrice,
+                         Long productId, String sku, String name, String description, BigDecimal price,
+                         Integer productQuantity, Integer reorderThreshold, String category,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(orderId, id, new ProductView(productId, sku, name, description, price, productQuantity, reorderThreshold,
+            category, createdAt, updatedAt), quantity, unitPrice, totalPrice);
+    }
+}
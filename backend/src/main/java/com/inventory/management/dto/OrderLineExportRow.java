@@ -0,0 +1,12 @@
+package com.inventory.management.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order line with its order's header columns, as written by the order export.
+ */
+public record OrderLineExportRow(Long orderId, String orderNumber, LocalDateTime orderDate, String status,
+                                 BigDecimal orderTotal, Long itemId, Long productId, String sku, String productName,
+                                 Integer quantity, BigDecimal unitPrice, BigDecimal totalPrice) {
+}
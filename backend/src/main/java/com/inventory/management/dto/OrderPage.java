@@ -0,0 +1,9 @@
+package com.inventory.management.dto;
+
+import java.util.List;
+
+/**
+ * One page of orders, newest first. {@code nextCursor} is null on the last page.
+ */
+public record OrderPage(List<OrderView> orders, String nextCursor) {
+}
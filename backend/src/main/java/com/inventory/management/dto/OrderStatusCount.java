@@ -0,0 +1,4 @@
+package com.inventory.management.dto;
+
+public record OrderStatusCount(String status, Long count) {
+}
@@ -0,0 +1,9 @@
+package com.inventory.management.dto;
+
+import java.util.Map;
+
+/**
+ * Number of orders per status for one user. Every known status is present, with 0 when unused.
+ */
+public record OrderStatusSummary(Map<String, Long> counts, long total) {
+}
@@ -0,0 +1,10 @@
+package com.inventory.management.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a status transition. {@code updated} counts orders moved by the statement; orders that
+ * were already in the target status are listed in neither {@code rejected} nor {@code notFound}.
+ */
+public record OrderStatusUpdateResult(String status, int updated, List<OrderStatusView> rejected, List<Long> notFound) {
+}
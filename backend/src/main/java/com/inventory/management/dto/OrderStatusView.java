@@ -0,0 +1,4 @@
+package com.inventory.management.dto;
+
+public record OrderStatusView(Long id, String status) {
+}
@@ -0,0 +1,84 @@
+package com.inventory.management.dto;
+
+import com.inventory.management.model.OrderSubmission;
+
+import java.time.LocalDateTime;
+
+public class OrderSubmissionDTO {
+    private Long id;
+    private String status;
+    private Long orderId;
+    private String error;
+    private String statusUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public OrderSubmissionDTO() {}
+
+    public OrderSubmissionDTO(OrderSubmission submission) {
+        this.id = submission.getId();
+        this.status = submission.getStatus();
+        this.orderId = submission.getOrderId();
+        this.error = submission.getError();
+        this.statusUrl = "/api/orders/submissions/" + submission.getId();
+        this.createdAt = submission.getCreatedAt();
+        this.completedAt = submission.getCompletedAt();
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getStatusUrl() {
+        return statusUrl;
+    }
+
+    public void setStatusUrl(String statusUrl) {
+        this.statusUrl = statusUrl;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.inventory.management.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read-only order for list endpoints, serialises like {@link OrderDTO}. The header is selected
+ * without items; {@link #withItems} attaches the lines read by a second query.
+ */
+public record OrderView(Long id, String orderNumber, BigDecimal totalAmount, String status,
+                        LocalDateTime orderDate, List<OrderItemView> orderItems) {
+
+    public OrderView(Long id, String orderNumber, BigDecimal totalAmount, String status, LocalDateTime orderDate) {
+        this(id, orderNumber, totalAmount, status, orderDate, List.of());
+    }
+
+    public OrderView withItems(List<OrderItemView> items) {
+        return new OrderView(id, orderNumber, totalAmount, status, orderDate, List.copyOf(items));
+    }
+}
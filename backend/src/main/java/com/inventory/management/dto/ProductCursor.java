@@ -0,0 +1,46 @@
+package com.inventory.management.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a product listing: the sort key and id of the last product of the previous page.
+ * A cursor is only valid for the sort and direction it was issued for. Clients treat the encoded
+ * form as opaque.
+ */
+public record ProductCursor(ProductSort sort, boolean descending, Object value, Long id) {
+
+    public String encode() {
+        String raw = sort.name() + "|" + (descending ? "D" : "A") + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns null for a missing cursor, meaning the first page.
+     */
+    public static ProductCursor decode(String cursor, ProductSort sort, boolean descending) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        ProductSort cursorSort;
+        boolean cursorDescending;
+        Object value;
+        Long id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The value goes last: names may contain the separator
+            String[] parts = raw.split("\\|", 4);
+            cursorSort = ProductSort.valueOf(parts[0]);
+            cursorDescending = parts[1].equals("D");
+            id = Long.parseLong(parts[2]);
+            value = cursorSort.parseValue(parts[3]);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (cursorSort != sort || cursorDescending != descending) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        return new ProductCursor(sort, descending, value, id);
+    }
+}
@@ -12,6 +12,7 @@ public class ProductDTO {
     private String description;
     private BigDecimal price;
     private Integer quantity;
+    private Integer reorderThreshold;
     private String category;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -25,6 +26,7 @@ public class ProductDTO {
         this.description = product.getDescription();
         this.price = product.getPrice();
         this.quantity = product.getQuantity();
+        this.reorderThreshold = product.getReorderThreshold();
         this.category = product.getCategory();
         this.createdAt = product.getCreatedAt();
         this.updatedAt = product.getUpdatedAt();
@@ -79,6 +81,14 @@ public class ProductDTO {
         this.quantity = quantity;
     }
 
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+
+    public void setReorderThreshold(Integer reorderThreshold) {
+        this.reorderThreshold = reorderThreshold;
+    }
+
     public String getCategory() {
         return category;
     }
@@ -0,0 +1,23 @@
+package com.inventory.management.dto;
+
+/**
+ * Restrictions of a product listing; null fields do not restrict.
+ */
+public record ProductFilter(String nameContains, String category, Integer maxQuantity) {
+
+    public static ProductFilter all() {
+        return new ProductFilter(null, null, null);
+    }
+
+    public static ProductFilter nameContains(String name) {
+        return new ProductFilter(name, null, null);
+    }
+
+    public static ProductFilter category(String category) {
+        return new ProductFilter(null, category, null);
+    }
+
+    public static ProductFilter lowStock(int threshold) {
+        return new ProductFilter(null, null, threshold);
+    }
+}
@@ -0,0 +1,9 @@
+package com.inventory.management.dto;
+
+import java.util.List;
+
+/**
+ * One page of the product catalog. {@code nextCursor} is null on the last page.
+ */
+public record ProductPage(List<ProductView> products, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.inventory.management.dto;
+
+/**
+ * The searchable text of a product, as indexed by {@code ProductSearchIndex}.
+ */
+public record ProductSearchDocument(Long productId, Long userId, String sku, String name, String description) {
+}
@@ -0,0 +1,48 @@
+package com.inventory.management.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sort keys of the product catalog. Each is paired with the product id as a tiebreaker, so that
+ * keyset pages are stable; {@code property} is the entity attribute used in queries.
+ */
+public enum ProductSort {
+    NAME("name"),
+    QUANTITY("quantity"),
+    UPDATED_AT("updatedAt");
+
+    private final String property;
+
+    ProductSort(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object valueOf(ProductView product) {
+        return switch (this) {
+            case NAME -> product.name();
+            case QUANTITY -> product.quantity();
+            case UPDATED_AT -> product.updatedAt();
+        };
+    }
+
+    public Object parseValue(String value) {
+        return switch (this) {
+            case NAME -> value;
+            case QUANTITY -> Integer.valueOf(value);
+            case UPDATED_AT -> LocalDateTime.parse(value);
+        };
+    }
+
+    public static ProductSort parse(String sort) {
+        for (ProductSort value : values()) {
+            if (value.property.equalsIgnoreCase(sort) || value.name().equalsIgnoreCase(sort)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + sort + " (expected name, quantity or updatedAt)");
+    }
+}
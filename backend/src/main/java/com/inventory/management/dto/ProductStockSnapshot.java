@@ -0,0 +1,4 @@
+package com.inventory.management.dto;
+
+public record ProductStockSnapshot(Long productId, Long userId, String sku, String name, Integer quantity) {
+}
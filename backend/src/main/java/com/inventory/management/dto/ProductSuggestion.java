@@ -0,0 +1,7 @@
+package com.inventory.management.dto;
+
+/**
+ * A product offered by {@code /api/products/suggest}.
+ */
+public record ProductSuggestion(Long id, String sku, String name) {
+}
@@ -0,0 +1,11 @@
+package com.inventory.management.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only product row for list endpoints, selected column by column; serialises like {@link ProductDTO}.
+ */
+public record ProductView(Long id, String sku, String name, String description, BigDecimal price,
+                          Integer quantity, Integer reorderThreshold, String category, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,4 @@
+package com.inventory.management.dto;
+
+public record StockLevel(Long productId, Integer quantity) {
+}
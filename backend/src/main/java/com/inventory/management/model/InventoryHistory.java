@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class InventoryHistory {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_history_id_seq")
+    @SequenceGenerator(name = "inventory_history_id_seq", sequenceName = "inventory_history_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
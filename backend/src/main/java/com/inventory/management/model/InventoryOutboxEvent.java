@@ -0,0 +1,142 @@
+package com.inventory.management.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stock or catalogue change waiting to be relayed to event sinks, written in the same transaction
+ * as the change itself. Unlike {@link InventoryHistory} rows it holds plain ids, so it outlives a
+ * deleted product.
+ */
+@Entity
+@Table(name = "inventory_outbox", indexes = {
+    @Index(name = "idx_outbox_unpublished", columnList = "published_at, id")
+})
+public class InventoryOutboxEvent {
+    
+    // Drawn at insert, before commit, so ids follow allocation order rather than commit order
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_outbox_id_seq")
+    @SequenceGenerator(name = "inventory_outbox_id_seq", sequenceName = "inventory_outbox_id_seq", allocationSize = 1)
+    private Long id;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(length = 20, nullable = false)
+    private String action;
+    
+    private Integer previousQuantity;
+    
+    private Integer newQuantity;
+    
+    @Column(length = 500)
+    private String description;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+    
+    // Set while a relay delivers the row outside a transaction; other relays wait for it to pass
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+    
+    public InventoryOutboxEvent() {}
+    
+    public InventoryOutboxEvent(Long productId, Long userId, String action, Integer previousQuantity,
+                                Integer newQuantity, String description, LocalDateTime createdAt) {
+        this.productId = productId;
+        this.userId = userId;
+        this.action = action;
+        this.previousQuantity = previousQuantity;
+        this.newQuantity = newQuantity;
+        this.description = description;
+        this.createdAt = createdAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getAction() {
+        return action;
+    }
+    
+    public void setAction(String action) {
+        this.action = action;
+    }
+    
+    public Integer getPreviousQuantity() {
+        return previousQuantity;
+    }
+    
+    public void setPreviousQuantity(Integer previousQuantity) {
+        this.previousQuantity = previousQuantity;
+    }
+    
+    public Integer getNewQuantity() {
+        return newQuantity;
+    }
+    
+    public void setNewQuantity(Integer newQuantity) {
+        this.newQuantity = newQuantity;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public void setDescription(String description) {
+        this.description = description;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+    
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+    
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+    
+    public void setClaimedUntil(LocalDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+}
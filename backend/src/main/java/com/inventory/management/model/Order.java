@@ -11,6 +11,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@NamedEntityGraph(name = Order.WITH_ITEMS,
+    attributeNodes = @NamedAttributeNode(value = "orderItems", subgraph = "items"),
+    subgraphs = @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode("product")))
 @Table(name = "orders", indexes = {
     @Index(name = "idx_order_date", columnList = "order_date"),
     @Index(name = "idx_user_date", columnList = "user_id, order_date"),
@@ -19,8 +22,15 @@ import java.util.List;
 })
 public class Order {
     
+    /**
+     * Fetch plan for the order detail: items and their products in the same query. Items are
+     * otherwise loaded on access, in batches of {@code hibernate.default_batch_fetch_size}.
+     */
+    public static final String WITH_ITEMS = "Order.withItems";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "order_number", unique = true, length = 20)
@@ -41,7 +51,7 @@ public class Order {
     @Column(name = "order_date")
     private LocalDateTime orderDate;
     
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<OrderItem> orderItems = new ArrayList<>();
     
@@ -113,7 +123,6 @@ public class Order {
     public void addOrderItem(OrderItem orderItem) {
         orderItems.add(orderItem);
         orderItem.setOrder(this);
-        System.out.println("Added order item to order - Product: " + orderItem.getProduct().getName() + ", Quantity: " + orderItem.getQuantity());
     }
     
     @PrePersist
@@ -0,0 +1,110 @@
+package com.inventory.management.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The order created for a client's {@code Idempotency-Key}, kept until {@code expiresAt} so that
+ * retries of the same submission return that order instead of placing another one.
+ */
+@Entity
+@Table(name = "order_idempotency_keys", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+    @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+})
+public class OrderIdempotencyKey {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_idempotency_keys_id_seq")
+    @SequenceGenerator(name = "order_idempotency_keys_id_seq", sequenceName = "order_idempotency_keys_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+    
+    // SHA-256 of the order lines, to tell a retry from a different order reusing the key
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+    
+    public OrderIdempotencyKey() {}
+    
+    public OrderIdempotencyKey(Long userId, String idempotencyKey, String requestHash, Long orderId,
+                               LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.orderId = orderId;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getRequestHash() {
+        return requestHash;
+    }
+    
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -14,7 +14,8 @@ import java.math.BigDecimal;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_seq")
+    @SequenceGenerator(name = "order_items_id_seq", sequenceName = "order_items_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -45,7 +46,6 @@ public class OrderItem {
         this.quantity = quantity;
         this.unitPrice = unitPrice;
         this.totalPrice = unitPrice.multiply(BigDecimal.valueOf(quantity));
-        System.out.println("OrderItem created - Product: " + product.getName() + ", Quantity: " + quantity + ", Unit Price: " + unitPrice + ", Total Price: " + this.totalPrice);
     }
     
     public Long getId() {
@@ -0,0 +1,37 @@
+package com.inventory.management.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Order lifecycle. {@code orders.status} stores the constant name; an order may only move to a
+ * status whose {@link #allowedFrom()} contains its current one.
+ */
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+    
+    public Set<OrderStatus> allowedFrom() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(OrderStatus.class);
+            case CONFIRMED -> EnumSet.of(PENDING);
+            case SHIPPED -> EnumSet.of(PENDING, CONFIRMED);
+            case DELIVERED -> EnumSet.of(SHIPPED);
+            case CANCELLED -> EnumSet.of(PENDING, CONFIRMED);
+        };
+    }
+    
+    public static OrderStatus parse(String status) {
+        if (status != null) {
+            for (OrderStatus value : values()) {
+                if (value.name().equalsIgnoreCase(status.trim())) {
+                    return value;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status: " + status);
+    }
+}
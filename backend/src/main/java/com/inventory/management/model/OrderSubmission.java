@@ -0,0 +1,191 @@
+package com.inventory.management.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order accepted by {@code POST /api/orders} in asynchronous mode and not necessarily placed yet.
+ * The validated lines are kept as JSON in {@code payload} until a worker claims the row.
+ */
+@Entity
+@Table(name = "order_submissions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_submission_user_key", columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+    @Index(name = "idx_submission_status", columnList = "status, id"),
+    @Index(name = "idx_submission_claim", columnList = "claim_token")
+})
+public class OrderSubmission {
+    
+    public static final String QUEUED = "QUEUED";
+    public static final String PROCESSING = "PROCESSING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_submissions_id_seq")
+    @SequenceGenerator(name = "order_submissions_id_seq", sequenceName = "order_submissions_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+    
+    // Sized for app.orders.max-payload-bytes; the stored form is more compact than the request body
+    @Column(nullable = false, length = 1048576)
+    private String payload;
+    
+    @Column(length = 20, nullable = false)
+    private String status = QUEUED;
+    
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+    
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+    
+    private int attempts;
+    
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(length = 500)
+    private String error;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    public OrderSubmission() {}
+    
+    public OrderSubmission(Long userId, String idempotencyKey, String requestHash, String payload) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public void complete(Long orderId) {
+        this.status = COMPLETED;
+        this.orderId = orderId;
+        this.completedAt = LocalDateTime.now();
+    }
+    
+    public void fail(String error) {
+        this.status = FAILED;
+        this.error = error != null && error.length() > 500 ? error.substring(0, 500) : error;
+        this.completedAt = LocalDateTime.now();
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getRequestHash() {
+        return requestHash;
+    }
+    
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getClaimToken() {
+        return claimToken;
+    }
+    
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+    
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+    
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+    
+    public int getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
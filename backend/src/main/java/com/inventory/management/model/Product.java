@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -22,7 +23,8 @@ import java.time.LocalDateTime;
 public class Product {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -45,6 +47,11 @@ public class Product {
     @Positive
     private Integer quantity;
     
+    // Stock at or below this is low; null means app.products.low-stock.default-threshold
+    @PositiveOrZero
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+    
     @Column(length = 50)
     private String category;
     
@@ -121,6 +128,14 @@ public class Product {
         this.quantity = quantity;
     }
     
+    public Integer getReorderThreshold() {
+        return reorderThreshold;
+    }
+    
+    public void setReorderThreshold(Integer reorderThreshold) {
+        this.reorderThreshold = reorderThreshold;
+    }
+    
     public String getCategory() {
         return category;
     }
@@ -1,5 +1,6 @@
 package com.inventory.management.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -18,7 +19,8 @@ import java.util.List;
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -36,6 +38,10 @@ public class User implements UserDetails {
     @Column(length = 20)
     private String role = "USER";
     
+    @Column(name = "token_version")
+    @JsonIgnore
+    private Integer tokenVersion = 0;
+    
     public User() {}
     
     public User(String username, String password, String email) {
@@ -84,6 +90,14 @@ public class User implements UserDetails {
         this.role = role;
     }
     
+    public int getTokenVersion() {
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+    
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
     @Override
     public boolean isAccountNonExpired() {
         return true;
@@ -1,18 +1,23 @@
 package com.inventory.management.repository;
 
+import com.inventory.management.dto.HistoryEntryView;
 import com.inventory.management.model.InventoryHistory;
 import com.inventory.management.model.Product;
 import com.inventory.management.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryHistoryRepository extends JpaRepository<InventoryHistory, Long> {
@@ -30,6 +35,26 @@ public interface InventoryHistoryRepository extends JpaRepository<InventoryHisto
     @Query("SELECT ih FROM InventoryHistory ih WHERE ih.user = :user AND ih.createdAt >= :startDate ORDER BY ih.createdAt DESC")
     List<InventoryHistory> findRecentHistoryByUser(@Param("user") User user, @Param("startDate") LocalDateTime startDate);
     
+    @Query("SELECT new com.inventory.management.dto.HistoryEntryView(ih.id, p.id, p.name, ih.action, ih.previousQuantity, ih.newQuantity, ih.description, ih.createdAt) " +
+           "FROM InventoryHistory ih LEFT JOIN ih.product p WHERE ih.user = :user ORDER BY ih.createdAt DESC")
+    List<HistoryEntryView> findViewsByUser(@Param("user") User user);
+    
+    @Query("SELECT new com.inventory.management.dto.HistoryEntryView(ih.id, p.id, p.name, ih.action, ih.previousQuantity, ih.newQuantity, ih.description, ih.createdAt) " +
+           "FROM InventoryHistory ih LEFT JOIN ih.product p WHERE ih.user = :user AND ih.product = :product ORDER BY ih.createdAt DESC")
+    List<HistoryEntryView> findViewsByProductAndUser(@Param("product") Product product, @Param("user") User user);
+    
+    @Query("SELECT new com.inventory.management.dto.HistoryEntryView(ih.id, p.id, p.name, ih.action, ih.previousQuantity, ih.newQuantity, ih.description, ih.createdAt) " +
+           "FROM InventoryHistory ih LEFT JOIN ih.product p WHERE ih.user = :user AND ih.action = :action ORDER BY ih.createdAt DESC")
+    List<HistoryEntryView> findViewsByActionAndUser(@Param("action") String action, @Param("user") User user);
+    
+    // Cursor-backed like OrderItemRepository.streamExportRows; consume and close inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.inventory.management.dto.HistoryEntryView(ih.id, p.id, p.name, ih.action, ih.previousQuantity, ih.newQuantity, ih.description, ih.createdAt) " +
+           "FROM InventoryHistory ih LEFT JOIN ih.product p " +
+           "WHERE ih.user = :user AND ih.createdAt >= :from AND ih.createdAt < :to ORDER BY ih.createdAt, ih.id")
+    Stream<HistoryEntryView> streamViewsByUser(@Param("user") User user, @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+    
     @Modifying
     @Transactional
     void deleteByProduct(Product product);
@@ -0,0 +1,39 @@
+package com.inventory.management.repository;
+
+import com.inventory.management.model.InventoryOutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryOutboxRepository extends JpaRepository<InventoryOutboxEvent, Long> {
+    
+    // Locked until the relay's claiming transaction ends, so replicas relaying at the same time take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM InventoryOutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+    List<InventoryOutboxEvent> lockUnpublished(Pageable pageable);
+    
+    long countByPublishedAtIsNull();
+    
+    @Modifying
+    @Query("UPDATE InventoryOutboxEvent e SET e.publishedAt = :publishedAt, e.claimedUntil = NULL WHERE e.id IN :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+    
+    @Modifying
+    @Query("UPDATE InventoryOutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids AND e.publishedAt IS NULL")
+    int releaseClaims(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InventoryOutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,131 @@
+package com.inventory.management.repository;
+
+import com.inventory.management.model.InventoryHistory;
+import com.inventory.management.model.Order;
+import com.inventory.management.model.OrderItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes already validated orders with batched JDBC statements. Runs inside the caller's JPA
+ * transaction (JdbcTemplate shares its connection); the entities are only used as carriers and
+ * are not attached to the persistence context. Ids come from the same sequences, and are carved
+ * into blocks the same way, as Hibernate's pooled optimizer, so both can insert side by side.
+ */
+@Repository
+public class OrderBatchRepository {
+    
+    private static final int BATCH_SIZE = 500;
+    // Must match allocationSize of the entities' @SequenceGenerator
+    private static final int ID_ALLOCATION_SIZE = 50;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+    
+    public OrderBatchRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+    
+    /**
+     * Inserts the orders, assigning their ids.
+     */
+    public void insertOrders(List<Order> orders) {
+        List<Long> ids = allocateIds("orders_id_seq", orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO orders (id, order_number, user_id, total_amount, status, order_date) VALUES (?, ?, ?, ?, ?, ?)",
+            orders, BATCH_SIZE, (ps, order) -> {
+                ps.setLong(1, order.getId());
+                ps.setString(2, order.getOrderNumber());
+                ps.setLong(3, order.getUser().getId());
+                ps.setBigDecimal(4, order.getTotalAmount());
+                ps.setString(5, order.getStatus());
+                ps.setTimestamp(6, Timestamp.valueOf(order.getOrderDate()));
+            });
+    }
+    
+    public void insertOrderItems(List<Order> orders) {
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orders) {
+            items.addAll(order.getOrderItems());
+        }
+        List<Long> ids = allocateIds("order_items_id_seq", items.size());
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO order_items (id, order_id, product_id, quantity, unit_price, total_price) VALUES (?, ?, ?, ?, ?, ?)",
+            items, BATCH_SIZE, (ps, item) -> {
+                ps.setLong(1, item.getId());
+                ps.setLong(2, item.getOrder().getId());
+                ps.setLong(3, item.getProduct().getId());
+                ps.setInt(4, item.getQuantity());
+                ps.setBigDecimal(5, item.getUnitPrice());
+                ps.setBigDecimal(6, item.getTotalPrice());
+            });
+    }
+    
+    /**
+     * Applies one decrement per product. The rows must already be locked and checked by the caller.
+     */
+    public void decrementStock(Map<Long, Integer> quantities, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        jdbcTemplate.batchUpdate(
+            "UPDATE products SET quantity = quantity - ?, updated_at = ? WHERE id = ?",
+            new ArrayList<>(quantities.entrySet()), BATCH_SIZE, (ps, entry) -> {
+                ps.setInt(1, entry.getValue());
+                ps.setTimestamp(2, timestamp);
+                ps.setLong(3, entry.getKey());
+            });
+    }
+    
+    public void insertHistory(List<InventoryHistory> rows) {
+        List<Long> ids = allocateIds("inventory_history_id_seq", rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO inventory_history (id, product_id, user_id, action, previous_quantity, new_quantity, description, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            rows, BATCH_SIZE, (ps, history) -> {
+                ps.setLong(1, history.getId());
+                ps.setLong(2, history.getProduct().getId());
+                ps.setLong(3, history.getUser().getId());
+                ps.setString(4, history.getAction());
+                ps.setInt(5, history.getPreviousQuantity());
+                ps.setInt(6, history.getNewQuantity());
+                ps.setString(7, history.getDescription());
+                ps.setTimestamp(8, Timestamp.valueOf(history.getCreatedAt()));
+            });
+    }
+    
+    /**
+     * Takes whole blocks from the sequence. Like Hibernate's pooled optimizer, a sequence value
+     * {@code hi} stands for the ids {@code hi - 49 .. hi}, except a first value below the block size,
+     * which stands for itself only.
+     */
+    private List<Long> allocateIds(String sequence, int count) {
+        String nextValue = dialect.getSequenceSupport().getSequenceNextValString(sequence);
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            long hi = jdbcTemplate.queryForObject(nextValue, Long.class);
+            long low = hi < ID_ALLOCATION_SIZE ? hi : hi - ID_ALLOCATION_SIZE + 1;
+            for (long id = low; id <= hi && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,29 @@
+package com.inventory.management.repository;
+
+import com.inventory.management.model.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, Long> {
+    
+    @Query("SELECT k FROM OrderIdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :key AND k.expiresAt > :now")
+    Optional<OrderIdempotencyKey> findLive(@Param("userId") Long userId, @Param("key") String key, @Param("now") LocalDateTime now);
+    
+    // Frees an expired key for reuse before its row is purged
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :key AND k.expiresAt <= :now")
+    int deleteExpired(@Param("userId") Long userId, @Param("key") String key, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,9 +1,37 @@
 package com.inventory.management.repository;
 
+import com.inventory.management.dto.OrderItemView;
+import com.inventory.management.dto.OrderLineExportRow;
 import com.inventory.management.model.OrderItem;
+import com.inventory.management.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    
+    @Query("SELECT new com.inventory.management.dto.OrderItemView(oi.order.id, oi.id, oi.quantity, oi.unitPrice, oi.totalPrice, " +
+           "p.id, p.sku, p.name, p.description, p.price, p.quantity, p.reorderThreshold, p.category, p.createdAt, p.updatedAt) " +
+           "FROM OrderItem oi JOIN oi.product p WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemView> findViewsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+    
+    // Read through a cursor: rows are projections, so nothing accumulates in the persistence context.
+    // The caller must consume and close the stream inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.inventory.management.dto.OrderLineExportRow(o.id, o.orderNumber, o.orderDate, o.status, o.totalAmount, " +
+           "oi.id, p.id, p.sku, p.name, oi.quantity, oi.unitPrice, oi.totalPrice) " +
+           "FROM OrderItem oi JOIN oi.order o JOIN oi.product p " +
+           "WHERE o.user = :user AND o.orderDate >= :from AND o.orderDate < :to ORDER BY o.orderDate, o.id, oi.id")
+    Stream<OrderLineExportRow> streamExportRows(@Param("user") User user, @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
 }
@@ -1,34 +1,66 @@
 package com.inventory.management.repository;
 
+import com.inventory.management.dto.OrderStatusCount;
+import com.inventory.management.dto.OrderStatusView;
+import com.inventory.management.dto.OrderView;
 import com.inventory.management.model.Order;
 import com.inventory.management.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.user = :user ORDER BY o.orderDate DESC")
-    List<Order> findByUserOrderByOrderDateDesc(@Param("user") User user);
+    // Keyset pages over (order_date, id), served by idx_user_date. Only order columns are selected;
+    // the page's lines are read separately by OrderItemRepository.findViewsByOrderIds
+    @Query("SELECT new com.inventory.management.dto.OrderView(o.id, o.orderNumber, o.totalAmount, o.status, o.orderDate) FROM Order o WHERE o.user = :user " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderView> findPageByUser(@Param("user") User user, @Param("orderDate") LocalDateTime orderDate,
+                                   @Param("id") Long id, Pageable pageable);
     
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.status = :status ORDER BY o.orderDate DESC")
-    List<Order> findByStatusOrderByOrderDateDesc(@Param("status") String status);
+    @Query("SELECT new com.inventory.management.dto.OrderView(o.id, o.orderNumber, o.totalAmount, o.status, o.orderDate) FROM Order o WHERE o.user = :user AND o.status = :status " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderView> findPageByUserAndStatus(@Param("user") User user, @Param("status") String status,
+                                            @Param("orderDate") LocalDateTime orderDate, @Param("id") Long id,
+                                            Pageable pageable);
     
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.status = :status AND o.user = :user ORDER BY o.orderDate DESC")
-    List<Order> findByStatusAndUserOrderByOrderDateDesc(@Param("status") String status, @Param("user") User user);
+    @Query("SELECT new com.inventory.management.dto.OrderView(o.id, o.orderNumber, o.totalAmount, o.status, o.orderDate) FROM Order o WHERE o.user = :user AND o.orderDate >= :startDate " +
+           "AND (o.orderDate < :orderDate OR (o.orderDate = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderView> findRecentPageByUser(@Param("user") User user, @Param("startDate") LocalDateTime startDate,
+                                         @Param("orderDate") LocalDateTime orderDate, @Param("id") Long id,
+                                         Pageable pageable);
     
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.user = :user AND o.orderDate >= :startDate ORDER BY o.orderDate DESC")
-    List<Order> findRecentOrdersByUser(@Param("user") User user, @Param("startDate") LocalDateTime startDate);
+    @Query("SELECT new com.inventory.management.dto.OrderStatusCount(o.status, COUNT(o)) FROM Order o " +
+           "WHERE o.user = :user GROUP BY o.status")
+    List<OrderStatusCount> countByUserGroupByStatus(@Param("user") User user);
     
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.user = :user AND o.status = :status")
-    long countByUserAndStatus(@Param("user") User user, @Param("status") String status);
+    @EntityGraph(Order.WITH_ITEMS)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
     
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product WHERE o.id = :id")
-    Optional<Order> findByIdWithOrderItems(@Param("id") Long id);
+    @EntityGraph(Order.WITH_ITEMS)
+    @Query("SELECT o FROM Order o WHERE o.id = :id AND o.user = :user")
+    Optional<Order> findWithItemsByIdAndUser(@Param("id") Long id, @Param("user") User user);
+    
+    // One statement for any number of orders; orders not owned by the user or not in a source status are left alone
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :status WHERE o.id IN :ids AND o.user = :user AND o.status IN :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("user") User user,
+                     @Param("status") String status, @Param("from") Collection<String> from);
+    
+    @Query("SELECT new com.inventory.management.dto.OrderStatusView(o.id, o.status) FROM Order o WHERE o.id IN :ids AND o.user = :user")
+    List<OrderStatusView> findStatuses(@Param("ids") Collection<Long> ids, @Param("user") User user);
 }
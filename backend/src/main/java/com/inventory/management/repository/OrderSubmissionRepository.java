@@ -0,0 +1,72 @@
+package com.inventory.management.repository;
+
+import com.inventory.management.model.OrderSubmission;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderSubmissionRepository extends JpaRepository<OrderSubmission, Long> {
+    
+    Optional<OrderSubmission> findByIdAndUserId(Long id, Long userId);
+    
+    Optional<OrderSubmission> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+    
+    @Query("SELECT s.id FROM OrderSubmission s WHERE s.status = 'QUEUED' ORDER BY s.id")
+    List<Long> findQueuedIds(Pageable pageable);
+    
+    // Only rows still queued are taken, so two workers (or replicas) never claim the same submission
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderSubmission s SET s.status = 'PROCESSING', s.claimToken = :token, s.claimedAt = :now, " +
+           "s.attempts = s.attempts + 1 WHERE s.id IN :ids AND s.status = 'QUEUED'")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT s FROM OrderSubmission s WHERE s.claimToken = :token AND s.status = 'PROCESSING' ORDER BY s.id")
+    List<OrderSubmission> findClaimed(@Param("token") String token);
+    
+    // Locks the rows still held by this claim; a stale claim requeued meanwhile is no longer returned,
+    // and one requeued later has to wait for the caller's transaction to commit its outcome
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderSubmission s WHERE s.id IN :ids AND s.claimToken = :token AND s.status = 'PROCESSING' ORDER BY s.id")
+    List<OrderSubmission> lockClaimed(@Param("ids") Collection<Long> ids, @Param("token") String token);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderSubmission s SET s.status = 'QUEUED', s.claimToken = NULL WHERE s.claimToken = :token AND s.status = 'PROCESSING'")
+    int release(@Param("token") String token);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderSubmission s SET s.status = 'QUEUED', s.claimToken = NULL " +
+           "WHERE s.status = 'PROCESSING' AND s.claimedAt < :cutoff AND s.attempts < :maxAttempts")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderSubmission s SET s.status = 'FAILED', s.claimToken = NULL, s.error = :error, s.completedAt = :now " +
+           "WHERE s.status = 'PROCESSING' AND s.claimedAt < :cutoff AND s.attempts >= :maxAttempts")
+    int failStale(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts,
+                  @Param("error") String error, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderSubmission s WHERE s.status IN ('COMPLETED', 'FAILED') AND s.completedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    long countByStatus(String status);
+    
+    @Query("SELECT MIN(s.createdAt) FROM OrderSubmission s WHERE s.status = 'QUEUED'")
+    LocalDateTime findOldestQueuedAt();
+}
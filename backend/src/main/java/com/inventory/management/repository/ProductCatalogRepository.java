@@ -0,0 +1,78 @@
+package com.inventory.management.repository;
+
+import com.inventory.management.dto.ProductCursor;
+import com.inventory.management.dto.ProductFilter;
+import com.inventory.management.dto.ProductSort;
+import com.inventory.management.dto.ProductView;
+import com.inventory.management.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Keyset pages of a user's products as {@link ProductView} projections, for any {@link ProductSort}
+ * and direction. The query is assembled from fixed fragments only; sort properties come from the
+ * enum. Name and quantity order follow {@code idx_user_name} and {@code idx_user_quantity}; recency
+ * follows {@code idx_updated_at}.
+ */
+@Repository
+public class ProductCatalogRepository {
+
+    private static final String SELECT_VIEW = "SELECT new com.inventory.management.dto.ProductView(" +
+        "p.id, p.sku, p.name, p.description, p.price, p.quantity, p.reorderThreshold, p.category, p.createdAt, p.updatedAt) " +
+        "FROM Product p ";
+
+    private final EntityManager entityManager;
+
+    public ProductCatalogRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns up to {@code limit} products after {@code after} (or from the start when null).
+     */
+    public List<ProductView> findPage(User user, ProductFilter filter, ProductSort sort, boolean descending,
+                                      ProductCursor after, int limit) {
+        String property = "p." + sort.getProperty();
+        String direction = descending ? " DESC" : " ASC";
+        StringBuilder jpql = new StringBuilder(SELECT_VIEW).append("WHERE p.user = :user");
+        if (filter.nameContains() != null) {
+            jpql.append(" AND LOWER(p.name) LIKE :name ESCAPE '\\'");
+        }
+        if (filter.category() != null) {
+            jpql.append(" AND p.category = :category");
+        }
+        if (filter.maxQuantity() != null) {
+            jpql.append(" AND p.quantity <= :maxQuantity");
+        }
+        if (after != null) {
+            String beyond = descending ? " < " : " > ";
+            jpql.append(" AND (").append(property).append(beyond).append(":value OR (")
+                .append(property).append(" = :value AND p.id").append(beyond).append(":id))");
+        }
+        jpql.append(" ORDER BY ").append(property).append(direction).append(", p.id").append(direction);
+
+        TypedQuery<ProductView> query = entityManager.createQuery(jpql.toString(), ProductView.class)
+            .setParameter("user", user)
+            .setMaxResults(limit);
+        if (filter.nameContains() != null) {
+            query.setParameter("name", "%" + escapeLike(filter.nameContains().toLowerCase()) + "%");
+        }
+        if (filter.category() != null) {
+            query.setParameter("category", filter.category());
+        }
+        if (filter.maxQuantity() != null) {
+            query.setParameter("maxQuantity", filter.maxQuantity());
+        }
+        if (after != null) {
+            query.setParameter("value", after.value()).setParameter("id", after.id());
+        }
+        return query.getResultList();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,14 +1,30 @@
 package com.inventory.management.repository;
 
+import com.inventory.management.dto.LowStockItem;
+import com.inventory.management.dto.ProductSearchDocument;
+import com.inventory.management.dto.ProductStockSnapshot;
+import com.inventory.management.dto.ProductSuggestion;
+import com.inventory.management.dto.ProductView;
+import com.inventory.management.dto.StockLevel;
 import com.inventory.management.model.Product;
 import com.inventory.management.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -19,6 +35,13 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     Optional<Product> findByIdAndUser(Long id, User user);
     
+    List<Product> findByIdInAndUser(Collection<Long> ids, User user);
+    
+    // Locks in id order, the same order single orders decrement in
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids AND p.user = :user ORDER BY p.id")
+    List<Product> findByIdInAndUserForUpdate(@Param("ids") Collection<Long> ids, @Param("user") User user);
+    
     List<Product> findByUserOrderByName(User user);
     
     List<Product> findByCategoryOrderByName(String category);
@@ -31,6 +54,73 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     boolean existsBySkuAndUser(String sku, User user);
     
-    @Query("SELECT p FROM Product p WHERE p.user = :user AND p.quantity <= :threshold ORDER BY p.quantity")
-    List<Product> findLowStockProductsByUser(@Param("user") User user, @Param("threshold") Integer threshold);
+    /**
+     * Reserves stock atomically: the row is only updated if enough stock remains, so concurrent
+     * orders cannot oversell. Returns 0 when the reservation failed. Only the affected row is locked.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.updatedAt = :updatedAt " +
+           "WHERE p.id = :id AND p.user = :user AND p.quantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("user") User user,
+                       @Param("quantity") int quantity, @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Applies an already admitted, possibly grouped, reservation. Still conditional so that the
+     * database stays authoritative if the in-memory ledger is behind.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.updatedAt = :updatedAt " +
+           "WHERE p.id = :id AND p.quantity >= :quantity")
+    int decrementStockById(@Param("id") Long id, @Param("quantity") int quantity,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, p.updatedAt = :updatedAt WHERE p.id = :id")
+    int incrementStockById(@Param("id") Long id, @Param("quantity") int quantity,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+    
+    @Query("SELECT new com.inventory.management.dto.ProductStockSnapshot(p.id, p.user.id, p.sku, p.name, p.quantity) " +
+           "FROM Product p WHERE p.id = :id")
+    Optional<ProductStockSnapshot> findStockSnapshot(@Param("id") Long id);
+    
+    @Query("SELECT new com.inventory.management.dto.StockLevel(p.id, p.quantity) FROM Product p WHERE p.id IN :ids")
+    List<StockLevel> findStockLevels(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.inventory.management.dto.ProductView(" +
+           "p.id, p.sku, p.name, p.description, p.price, p.quantity, p.reorderThreshold, p.category, p.createdAt, p.updatedAt) " +
+           "FROM Product p WHERE p.id IN :ids AND p.user = :user")
+    List<ProductView> findViewsByIdInAndUser(@Param("ids") Collection<Long> ids, @Param("user") User user);
+    
+    @Query("SELECT new com.inventory.management.dto.ProductSearchDocument(p.id, p.user.id, p.sku, p.name, p.description) " +
+           "FROM Product p WHERE p.id = :id")
+    Optional<ProductSearchDocument> findSearchDocument(@Param("id") Long id);
+    
+    // The caller must consume and close the stream inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.inventory.management.dto.ProductSearchDocument(p.id, p.user.id, p.sku, p.name, p.description) " +
+           "FROM Product p WHERE p.user.id = :userId ORDER BY p.id")
+    Stream<ProductSearchDocument> streamSearchDocumentsByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT DISTINCT p.user.id FROM Product p")
+    List<Long> findUserIdsWithProducts();
+    
+    @Query("SELECT new com.inventory.management.dto.ProductSuggestion(p.id, p.sku, p.name) FROM Product p WHERE p.id = :id")
+    Optional<ProductSuggestion> findSuggestion(@Param("id") Long id);
+    
+    // The caller must consume and close the stream inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.inventory.management.dto.ProductSuggestion(p.id, p.sku, p.name) " +
+           "FROM Product p WHERE p.user.id = :userId ORDER BY p.id")
+    Stream<ProductSuggestion> streamSuggestionsByUserId(@Param("userId") Long userId);
+    
+    // Unindexed prefix match, for users too large for ProductSuggestIndex; prefix is lower case with LIKE wildcards escaped
+    @Query("SELECT new com.inventory.management.dto.ProductSuggestion(p.id, p.sku, p.name) FROM Product p " +
+           "WHERE p.user = :user AND (LOWER(p.name) LIKE CONCAT(:prefix, '%') ESCAPE '\\' " +
+           "OR LOWER(p.sku) LIKE CONCAT(:prefix, '%') ESCAPE '\\') ORDER BY p.name, p.id")
+    List<ProductSuggestion> findSuggestions(@Param("user") User user, @Param("prefix") String prefix, Pageable pageable);
+    
+    @Query("SELECT new com.inventory.management.dto.LowStockItem(p.id, p.sku, p.name, p.quantity, " +
+           "COALESCE(p.reorderThreshold, :defaultThreshold)) FROM Product p " +
+           "WHERE p.user.id = :userId AND p.quantity <= COALESCE(p.reorderThreshold, :defaultThreshold)")
+    List<LowStockItem> findLowStockItemsByUserId(@Param("userId") Long userId, @Param("defaultThreshold") int defaultThreshold);
 }
@@ -0,0 +1,179 @@
+package com.inventory.management.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.InventoryHistoryRepository;
+import com.inventory.management.repository.OrderItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's orders (one row per order line) or inventory history to a stream as NDJSON or CSV.
+ * Rows are read through a database cursor and written as they arrive, so memory use does not grow
+ * with the size of the export. Date bounds are inclusive days; either may be omitted.
+ */
+@Service
+public class DataExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataExportService.class);
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final List<String> ORDER_COLUMNS = List.of("orderId", "orderNumber", "orderDate", "status", "orderTotal",
+        "itemId", "productId", "sku", "productName", "quantity", "unitPrice", "totalPrice");
+    private static final List<String> HISTORY_COLUMNS = List.of("id", "productId", "productName", "action",
+        "previousQuantity", "newQuantity", "description", "createdAt");
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            for (Format value : values()) {
+                if (value.name().equalsIgnoreCase(format)) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Unknown export format: " + format + " (expected ndjson or csv)");
+        }
+    }
+
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryHistoryRepository inventoryHistoryRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnly;
+
+    public DataExportService(OrderItemRepository orderItemRepository, InventoryHistoryRepository inventoryHistoryRepository,
+                             ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.orderItemRepository = orderItemRepository;
+        this.inventoryHistoryRepository = inventoryHistoryRepository;
+        this.objectMapper = objectMapper;
+        // Rows are flushed by the generator's buffer, not one write per row
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public long exportOrders(User user, LocalDate from, LocalDate to, Format format, OutputStream out) {
+        return export("orders", format, out, ORDER_COLUMNS, () -> orderItemRepository.streamExportRows(user, start(from), end(to)),
+            row -> new Object[]{row.orderId(), row.orderNumber(), row.orderDate(), row.status(), row.orderTotal(),
+                row.itemId(), row.productId(), row.sku(), row.productName(), row.quantity(), row.unitPrice(), row.totalPrice()});
+    }
+
+    public long exportHistory(User user, LocalDate from, LocalDate to, Format format, OutputStream out) {
+        return export("history", format, out, HISTORY_COLUMNS, () -> inventoryHistoryRepository.streamViewsByUser(user, start(from), end(to)),
+            row -> new Object[]{row.id(), row.productId(), row.productName(), row.action(),
+                row.previousQuantity(), row.newQuantity(), row.description(), row.createdAt()});
+    }
+
+    private <T> long export(String name, Format format, OutputStream out, List<String> columns,
+                            Supplier<Stream<T>> query, Function<T, Object[]> csvValues) {
+        long start = System.nanoTime();
+        // The cursor only lives inside a transaction
+        Long rows = readOnly.execute(status -> {
+            try (Stream<T> stream = query.get()) {
+                return format == Format.CSV ? writeCsv(stream.iterator(), columns, csvValues, out) : writeNdjson(stream.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.atDebug().addKeyValue("export", name).addKeyValue("format", format).addKeyValue("rows", rows)
+            .addKeyValue("millis", (System.nanoTime() - start) / 1_000_000).log("export written");
+        return rows;
+    }
+
+    private <T> long writeNdjson(Iterator<T> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (rows.hasNext()) {
+                rowWriter.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private <T> long writeCsv(Iterator<T> rows, List<String> columns, Function<T, Object[]> values, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        while (rows.hasNext()) {
+            Object[] row = values.apply(rows.next());
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvField(writer, row[i]);
+            }
+            writer.write("\r\n");
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180: fields holding a separator, quote or line break are quoted, with quotes doubled
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static LocalDateTime start(LocalDate from) {
+        return from != null ? from.atStartOfDay() : EARLIEST;
+    }
+
+    private static LocalDateTime end(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : LATEST;
+    }
+}
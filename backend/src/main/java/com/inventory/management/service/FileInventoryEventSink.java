@@ -0,0 +1,53 @@
+package com.inventory.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.management.dto.InventoryChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed changes to {@code app.outbox.sinks.file.path} as newline-delimited JSON and forces
+ * each batch to disk before it is acknowledged.
+ */
+@Service
+@ConditionalOnExpression("!'${app.outbox.sinks.file.path:}'.isEmpty()")
+public class FileInventoryEventSink implements InventoryEventSink {
+    
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    
+    public FileInventoryEventSink(@Value("${app.outbox.sinks.file.path}") String path, ObjectMapper objectMapper) {
+        this.path = Path.of(path);
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public String name() {
+        return "file";
+    }
+    
+    @Override
+    public synchronized void publish(List<InventoryChangeEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (InventoryChangeEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.inventory.management.service;
+
+/**
+ * Thrown when an {@code Idempotency-Key} cannot be honoured: the first request with the key is
+ * still running, or the key was already used for a different order.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+    
+    private final boolean inProgress;
+    
+    public IdempotencyKeyConflictException(String message, boolean inProgress) {
+        super(message);
+        this.inProgress = inProgress;
+    }
+    
+    public boolean isInProgress() {
+        return inProgress;
+    }
+}
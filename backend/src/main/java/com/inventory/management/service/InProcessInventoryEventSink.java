@@ -0,0 +1,38 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.InventoryChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Publishes each relayed change as an {@link InventoryChangeEvent} application event
+ * ({@code @EventListener InventoryChangeEvent}). Off by default: it fires only on the replica that
+ * relays the batch, up to a relay interval late, so this process's caches and read models listen to
+ * the after-commit {@link ProductChangedEvent}, {@link StockChangedEvent} and {@link OrderChangedEvent}
+ * instead. It suits in-process consumers that need every change at least once across restarts.
+ */
+@Service
+@ConditionalOnProperty(name = "app.outbox.sinks.in-process.enabled", havingValue = "true")
+public class InProcessInventoryEventSink implements InventoryEventSink {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public InProcessInventoryEventSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @Override
+    public String name() {
+        return "in-process";
+    }
+    
+    @Override
+    public void publish(List<InventoryChangeEvent> events) {
+        for (InventoryChangeEvent event : events) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.inventory.management.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when one or more order lines could not be reserved because the conditional stock
+ * decrement found less stock than requested. Carries every failed line, not just the first.
+ */
+public class InsufficientStockException extends RuntimeException {
+    
+    private final List<StockShortfall> shortfalls;
+    
+    public InsufficientStockException(List<StockShortfall> shortfalls) {
+        super(describe(shortfalls));
+        this.shortfalls = List.copyOf(shortfalls);
+    }
+    
+    public static String describe(List<StockShortfall> shortfalls) {
+        return shortfalls.stream()
+                .map(s -> "Insufficient stock for product: " + s.productName() +
+                    ". Available: " + s.available() + ", Requested: " + s.requested())
+                .collect(Collectors.joining("; "));
+    }
+    
+    public List<StockShortfall> getShortfalls() {
+        return shortfalls;
+    }
+    
+    public record StockShortfall(Long productId, String productName, int requested, Integer available) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.InventoryChangeEvent;
+
+import java.util.List;
+
+/**
+ * Destination for relayed inventory changes. {@link InventoryOutboxRelay} hands each sink the same
+ * batch, in event id order; a sink that throws fails the batch, which is then offered to every
+ * sink again, so sinks must tolerate repeats.
+ */
+public interface InventoryEventSink {
+    
+    String name();
+    
+    void publish(List<InventoryChangeEvent> events) throws Exception;
+}
@@ -1,5 +1,6 @@
 package com.inventory.management.service;
 
+import com.inventory.management.dto.HistoryEntryView;
 import com.inventory.management.model.InventoryHistory;
 import com.inventory.management.model.Product;
 import com.inventory.management.model.User;
@@ -24,8 +25,8 @@ public class InventoryHistoryService {
         this.inventoryHistoryRepository = inventoryHistoryRepository;
     }
     
-    public List<InventoryHistory> getAllHistoryByUser(User user) {
-        return inventoryHistoryRepository.findByUserOrderByCreatedAtDesc(user);
+    public List<HistoryEntryView> getAllHistoryByUser(User user) {
+        return inventoryHistoryRepository.findViewsByUser(user);
     }
     
     public List<InventoryHistory> getRecentHistoryByUserWithLimit(User user, int limit) {
@@ -37,12 +38,12 @@ public class InventoryHistoryService {
         return inventoryHistoryRepository.findByProductOrderByCreatedAtDesc(product);
     }
     
-    public List<InventoryHistory> getHistoryByProductAndUser(Product product, User user) {
-        return inventoryHistoryRepository.findByProductAndUserOrderByCreatedAtDesc(product, user);
+    public List<HistoryEntryView> getHistoryByProductAndUser(Product product, User user) {
+        return inventoryHistoryRepository.findViewsByProductAndUser(product, user);
     }
     
-    public List<InventoryHistory> getHistoryByActionAndUser(String action, User user) {
-        return inventoryHistoryRepository.findByActionAndUserOrderByCreatedAtDesc(action, user);
+    public List<HistoryEntryView> getHistoryByActionAndUser(String action, User user) {
+        return inventoryHistoryRepository.findViewsByActionAndUser(action, user);
     }
     
     public List<InventoryHistory> getRecentHistoryByUserInDays(User user, int days) {
@@ -0,0 +1,65 @@
+package com.inventory.management.service;
+
+import com.inventory.management.model.InventoryHistory;
+import com.inventory.management.model.InventoryOutboxEvent;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.InventoryOutboxRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes inventory changes to the outbox. Every method requires the caller's transaction, so an
+ * event exists exactly when the transaction recording the change commits; {@link InventoryOutboxRelay}
+ * delivers it. Events are delivered in id order, which is not commit order (with the reservation
+ * ledger the stock update even commits before the order transaction that writes its event).
+ * With no {@link InventoryEventSink} configured nothing would ever deliver the rows, so none are written.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class InventoryOutbox {
+    
+    private final InventoryOutboxRepository repository;
+    private final boolean enabled;
+    
+    public InventoryOutbox(InventoryOutboxRepository repository, ObjectProvider<InventoryEventSink> sinks) {
+        this.repository = repository;
+        this.enabled = sinks.orderedStream().findAny().isPresent();
+    }
+    
+    public void append(InventoryHistory history) {
+        if (enabled) {
+            repository.save(toEvent(history));
+        }
+    }
+    
+    public void appendAll(List<InventoryHistory> rows) {
+        if (!enabled) {
+            return;
+        }
+        List<InventoryOutboxEvent> events = new ArrayList<>(rows.size());
+        for (InventoryHistory history : rows) {
+            events.add(toEvent(history));
+        }
+        repository.saveAll(events);
+    }
+    
+    public void appendDeleted(Product product, User user) {
+        if (!enabled) {
+            return;
+        }
+        repository.save(new InventoryOutboxEvent(product.getId(), user.getId(), "DELETE", product.getQuantity(), 0,
+            "Product deleted: " + product.getName(), LocalDateTime.now()));
+    }
+    
+    private InventoryOutboxEvent toEvent(InventoryHistory history) {
+        return new InventoryOutboxEvent(history.getProduct().getId(), history.getUser().getId(), history.getAction(),
+            history.getPreviousQuantity(), history.getNewQuantity(), history.getDescription(), history.getCreatedAt());
+    }
+}
@@ -0,0 +1,180 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.InventoryChangeEvent;
+import com.inventory.management.model.InventoryOutboxEvent;
+import com.inventory.management.repository.InventoryOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to every {@link InventoryEventSink}, in event id order, in batches of
+ * {@code batch-size}. A batch is claimed for {@code lease-ms} in one short transaction, handed to each
+ * sink with no transaction or connection held, and marked published in a second one. If any sink
+ * fails, the claim is released and the batch is offered again on the next run (at-least-once); a
+ * relay that dies mid-batch leaves a claim that lapses after the lease. While any row of the oldest
+ * batch is claimed, other relays wait, so batches are delivered in id order.
+ * <p>
+ * Id order is not commit order. Ids are drawn when the row is inserted, so a transaction holding a
+ * lower id can commit after one holding a higher id that was already delivered; and with the
+ * reservation ledger the stock change commits before the order transaction writes its event.
+ * Consumers that need per-product order reconstruct it from the quantities, as described on
+ * {@link InventoryChangeEvent}.
+ * Published rows are kept for {@code retention-hours}.
+ */
+@Service
+public class InventoryOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryOutboxRelay.class);
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long retentionHours;
+    private final Duration lease;
+    private final InventoryOutboxRepository repository;
+    private final List<InventoryEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter published;
+    private final Counter failures;
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+    private final Map<String, Timer> sinkTimers = new HashMap<>();
+
+    public InventoryOutboxRelay(@Value("${app.outbox.relay.enabled:true}") boolean enabled,
+                                @Value("${app.outbox.relay.batch-size:200}") int batchSize,
+                                @Value("${app.outbox.relay.max-batches-per-run:10}") int maxBatchesPerRun,
+                                @Value("${app.outbox.retention-hours:24}") long retentionHours,
+                                @Value("${app.outbox.relay.lease-ms:60000}") long leaseMillis,
+                                InventoryOutboxRepository repository,
+                                ObjectProvider<InventoryEventSink> sinks,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.retentionHours = retentionHours;
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.repository = repository;
+        this.sinks = sinks.orderedStream().toList();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.published = Counter.builder("outbox.relay.events").register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures").register(meterRegistry);
+        this.lag = Timer.builder("outbox.relay.lag").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size").register(meterRegistry);
+        for (InventoryEventSink sink : this.sinks) {
+            sinkTimers.put(sink.name(), Timer.builder("outbox.sink.duration").tag("sink", sink.name()).register(meterRegistry));
+        }
+        Gauge.builder("outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:500}")
+    public void relay() {
+        if (!enabled || sinks.isEmpty()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (relayBatch() < batchSize) {
+                    break;
+                }
+            }
+            pending.set(repository.countByPublishedAtIsNull());
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.atWarn().addKeyValue("error", e.getMessage()).log("outbox relay failed, batch will be retried");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval-ms:600000}")
+    public void purgePublished() {
+        int removed = repository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (removed > 0) {
+            log.atDebug().addKeyValue("removed", removed).log("published outbox events purged");
+        }
+    }
+
+    private int relayBatch() {
+        List<InventoryChangeEvent> events = transactionTemplate.execute(status -> claimBatch());
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = events.stream().map(InventoryChangeEvent::eventId).toList();
+        try {
+            for (InventoryEventSink sink : sinks) {
+                long start = System.nanoTime();
+                try {
+                    sink.publish(events);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Sink " + sink.name() + " failed: " + e.getMessage(), e);
+                } finally {
+                    sinkTimers.get(sink.name()).record(Duration.ofNanos(System.nanoTime() - start));
+                }
+            }
+        } catch (RuntimeException e) {
+            releaseClaims(ids);
+            throw e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> repository.markPublished(ids, now));
+        for (InventoryChangeEvent event : events) {
+            if (event.occurredAt() != null) {
+                lag.record(Duration.between(event.occurredAt(), now));
+            }
+        }
+        published.increment(events.size());
+        batchSizes.record(events.size());
+        return events.size();
+    }
+
+    private List<InventoryChangeEvent> claimBatch() {
+        List<InventoryOutboxEvent> rows = repository.lockUnpublished(PageRequest.of(0, batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        for (InventoryOutboxEvent row : rows) {
+            if (row.getClaimedUntil() != null && row.getClaimedUntil().isAfter(now)) {
+                // Another relay is delivering these; taking the rows after them would reorder events
+                return List.of();
+            }
+        }
+        LocalDateTime claimedUntil = now.plus(lease);
+        List<InventoryChangeEvent> events = new ArrayList<>(rows.size());
+        for (InventoryOutboxEvent row : rows) {
+            row.setClaimedUntil(claimedUntil);
+            events.add(new InventoryChangeEvent(row.getId(), row.getProductId(), row.getUserId(), row.getAction(),
+                row.getPreviousQuantity(), row.getNewQuantity(), row.getDescription(), row.getCreatedAt()));
+        }
+        return events;
+    }
+
+    private void releaseClaims(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.releaseClaims(ids));
+        } catch (RuntimeException e) {
+            // The claims lapse after the lease instead
+            log.atWarn().addKeyValue("error", e.getMessage()).log("outbox claims not released");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.inventory.management.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-window attempt limits for the authentication endpoints, per username and per client IP.
+ * Checked before any BCrypt work is scheduled, so throttled requests cost no hashing.
+ */
+@Service
+public class LoginThrottle {
+    
+    private static final int CLEANUP_THRESHOLD = 10_000;
+    
+    private final long windowMillis;
+    private final int maxPerUser;
+    private final int maxPerIp;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Counter throttled;
+    
+    public LoginThrottle(@Value("${app.security.login-throttle.window-seconds:60}") long windowSeconds,
+                         @Value("${app.security.login-throttle.max-per-user:10}") int maxPerUser,
+                         @Value("${app.security.login-throttle.max-per-ip:50}") int maxPerIp,
+                         MeterRegistry meterRegistry) {
+        this.windowMillis = windowSeconds * 1000;
+        this.maxPerUser = maxPerUser;
+        this.maxPerIp = maxPerIp;
+        this.throttled = Counter.builder("auth.throttled").register(meterRegistry);
+    }
+    
+    /**
+     * Records an attempt and returns {@code false} if either the username or the IP address is over
+     * its limit for the current window. A {@code null} username is only checked against the IP limit.
+     */
+    public boolean tryAcquire(String username, String ipAddress) {
+        long now = System.currentTimeMillis();
+        if (windows.size() > CLEANUP_THRESHOLD) {
+            windows.values().removeIf(window -> window.isExpired(now, windowMillis));
+        }
+        
+        boolean allowed = increment("ip:" + ipAddress, now) <= maxPerIp;
+        if (username != null) {
+            allowed &= increment("user:" + username.toLowerCase(), now) <= maxPerUser;
+        }
+        if (!allowed) {
+            throttled.increment();
+        }
+        return allowed;
+    }
+    
+    public long getWindowSeconds() {
+        return windowMillis / 1000;
+    }
+    
+    private int increment(String key, long now) {
+        return windows.compute(key, (k, window) ->
+                window == null || window.isExpired(now, windowMillis) ? new Window(now, 1) : window.next())
+            .count();
+    }
+    
+    private record Window(long startedAt, int count) {
+        
+        Window next() {
+            return new Window(startedAt, count + 1);
+        }
+        
+        boolean isExpired(long now, long windowMillis) {
+            return now - startedAt >= windowMillis;
+        }
+    }
+}
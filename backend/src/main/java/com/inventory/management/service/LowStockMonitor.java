@@ -0,0 +1,298 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.LowStockCrossing;
+import com.inventory.management.dto.LowStockItem;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Each user's low-stock set: products at or below their reorder threshold (or
+ * {@code default-threshold}). A user's set is read from the database once, when first asked for,
+ * and then maintained from the {@link StockChangedEvent}s that product edits and orders publish
+ * after commit. Products entering or leaving the set are pushed to the user's server-sent event
+ * subscribers.
+ * <p>
+ * Changes made on other replicas are not seen directly: every {@code resync-interval-ms} each set is
+ * re-read and differences are pushed as crossings. Sets of users without subscribers who have not
+ * asked for {@code idle-minutes} are dropped.
+ */
+@Service
+public class LowStockMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockMonitor.class);
+
+    private static final Comparator<LowStockItem> LOWEST_FIRST = Comparator.comparing(LowStockItem::quantity)
+            .thenComparing(LowStockItem::id);
+
+    private final int defaultThreshold;
+    private final long streamTimeoutMillis;
+    private final long idleNanos;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnly;
+    private final Map<Long, UserStock> users = new ConcurrentHashMap<>();
+    // One thread, so that each subscriber receives its events in the order they happened
+    private final ExecutorService pushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter entered;
+    private final Counter left;
+
+    public LowStockMonitor(@Value("${app.products.low-stock.default-threshold:10}") int defaultThreshold,
+                           @Value("${app.products.low-stock.stream-timeout-ms:1800000}") long streamTimeoutMillis,
+                           @Value("${app.products.low-stock.idle-minutes:30}") long idleMinutes,
+                           ProductRepository productRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.defaultThreshold = defaultThreshold;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        this.productRepository = productRepository;
+        // Also used after a commit, where the finished transaction cannot be joined
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setReadOnly(true);
+
+        this.entered = Counter.builder("products.low-stock.crossings").tag("direction", "entered").register(meterRegistry);
+        this.left = Counter.builder("products.low-stock.crossings").tag("direction", "left").register(meterRegistry);
+        Gauge.builder("products.low-stock.users", users, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * The user's low-stock products, lowest quantity first.
+     */
+    public List<LowStockItem> getLowStock(User user) {
+        return withLoaded(user.getId(), UserStock::sorted);
+    }
+
+    /**
+     * Opens a server-sent event stream for the user: a {@code snapshot} event with the current set,
+     * then a {@code crossing} event ({@link LowStockCrossing}) for every product entering or leaving it.
+     */
+    public SseEmitter subscribe(User user) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        return withLoaded(user.getId(), stock -> {
+            Runnable unsubscribe = () -> stock.subscribers.remove(emitter);
+            emitter.onCompletion(unsubscribe);
+            emitter.onTimeout(unsubscribe);
+            emitter.onError(error -> unsubscribe.run());
+            // Queued under the lock: crossings after this snapshot are queued behind it, earlier ones
+            // are already in it
+            List<LowStockItem> snapshot = stock.sorted();
+            stock.subscribers.add(emitter);
+            pushExecutor.execute(() -> send(stock, emitter, SseEmitter.event().name("snapshot").data(snapshot)));
+            return emitter;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        UserStock stock = users.get(event.userId());
+        if (stock == null) {
+            return;
+        }
+        stock.lock.lock();
+        try {
+            if (!stock.loaded) {
+                return;
+            }
+            List<LowStockCrossing> crossings = new ArrayList<>();
+            for (StockChangedEvent.Level level : event.levels()) {
+                LowStockCrossing crossing = apply(stock, level);
+                if (crossing != null) {
+                    crossings.add(crossing);
+                }
+            }
+            push(stock, crossings);
+        } finally {
+            stock.lock.unlock();
+        }
+    }
+
+    /**
+     * Re-reads every set from the database, pushing any difference as crossings, and drops sets
+     * nobody is using.
+     */
+    @Scheduled(fixedDelayString = "${app.products.low-stock.resync-interval-ms:300000}")
+    public void resync() {
+        long now = System.nanoTime();
+        int dropped = 0;
+        for (Map.Entry<Long, UserStock> entry : users.entrySet()) {
+            UserStock stock = entry.getValue();
+            stock.lock.lock();
+            try {
+                if (!stock.loaded) {
+                    continue;
+                }
+                if (stock.subscribers.isEmpty() && now - stock.lastUsed > idleNanos) {
+                    stock.loaded = false;
+                    users.remove(entry.getKey(), stock);
+                    dropped++;
+                    continue;
+                }
+                Map<Long, LowStockItem> current = load(entry.getKey());
+                List<LowStockCrossing> crossings = new ArrayList<>();
+                for (LowStockItem item : current.values()) {
+                    if (!stock.items.containsKey(item.id())) {
+                        crossings.add(new LowStockCrossing(LowStockCrossing.Direction.ENTERED, item));
+                    }
+                }
+                for (LowStockItem item : stock.items.values()) {
+                    if (!current.containsKey(item.id())) {
+                        crossings.add(new LowStockCrossing(LowStockCrossing.Direction.LEFT, item));
+                    }
+                }
+                stock.items.clear();
+                stock.items.putAll(current);
+                push(stock, crossings);
+            } catch (RuntimeException e) {
+                log.atWarn().addKeyValue("userId", entry.getKey()).setCause(e).log("low-stock resync failed");
+            } finally {
+                stock.lock.unlock();
+            }
+        }
+        if (dropped > 0) {
+            log.atDebug().addKeyValue("users", dropped).addKeyValue("remaining", users.size()).log("idle low-stock sets dropped");
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies, and notices subscribers that have gone away.
+     */
+    @Scheduled(fixedDelayString = "${app.products.low-stock.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        for (UserStock stock : users.values()) {
+            for (SseEmitter emitter : stock.subscribers) {
+                pushExecutor.execute(() -> send(stock, emitter, SseEmitter.event().comment("keep-alive")));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdownNow();
+        for (UserStock stock : users.values()) {
+            stock.subscribers.forEach(SseEmitter::complete);
+        }
+    }
+
+    private <T> T withLoaded(Long userId, Function<UserStock, T> action) {
+        while (true) {
+            UserStock stock = users.computeIfAbsent(userId, id -> new UserStock());
+            stock.lock.lock();
+            try {
+                if (!stock.loaded) {
+                    // Dropped as idle after it was looked up; a fresh one takes its place
+                    if (users.get(userId) != stock) {
+                        continue;
+                    }
+                    stock.items.putAll(load(userId));
+                    stock.loaded = true;
+                }
+                stock.lastUsed = System.nanoTime();
+                return action.apply(stock);
+            } finally {
+                stock.lock.unlock();
+            }
+        }
+    }
+
+    private Map<Long, LowStockItem> load(Long userId) {
+        Map<Long, LowStockItem> items = new HashMap<>();
+        for (LowStockItem item : readOnly.execute(status -> productRepository.findLowStockItemsByUserId(userId, defaultThreshold))) {
+            items.put(item.id(), item);
+        }
+        return items;
+    }
+
+    private LowStockCrossing apply(UserStock stock, StockChangedEvent.Level level) {
+        int threshold = level.reorderThreshold() != null ? level.reorderThreshold() : defaultThreshold;
+        LowStockItem item = new LowStockItem(level.productId(), level.sku(), level.name(), level.quantity(), threshold);
+        boolean low = level.quantity() != null && level.quantity() <= threshold;
+        if (low) {
+            return stock.items.put(level.productId(), item) == null
+                    ? new LowStockCrossing(LowStockCrossing.Direction.ENTERED, item)
+                    : null;
+        }
+        return stock.items.remove(level.productId()) != null
+                ? new LowStockCrossing(LowStockCrossing.Direction.LEFT, item)
+                : null;
+    }
+
+    // Called under the user's lock, so that pushes are queued in the order the set changed
+    private void push(UserStock stock, List<LowStockCrossing> crossings) {
+        for (LowStockCrossing crossing : crossings) {
+            (crossing.direction() == LowStockCrossing.Direction.ENTERED ? entered : left).increment();
+        }
+        if (crossings.isEmpty() || stock.subscribers.isEmpty()) {
+            return;
+        }
+        List<SseEmitter> targets = List.copyOf(stock.subscribers);
+        pushExecutor.execute(() -> {
+            for (SseEmitter emitter : targets) {
+                for (LowStockCrossing crossing : crossings) {
+                    if (!send(stock, emitter, SseEmitter.event().name("crossing").data(crossing))) {
+                        break;
+                    }
+                }
+            }
+        });
+    }
+
+    private static boolean send(UserStock stock, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream timed out
+            stock.subscribers.remove(emitter);
+            return false;
+        }
+    }
+
+    private static final class UserStock {
+
+        final ReentrantLock lock = new ReentrantLock();
+        // Guarded by lock
+        boolean loaded;
+        final Map<Long, LowStockItem> items = new HashMap<>();
+        volatile long lastUsed;
+        final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+        List<LowStockItem> sorted() {
+            List<LowStockItem> sorted = new ArrayList<>(items.values());
+            sorted.sort(LOWEST_FIRST);
+            return sorted;
+        }
+    }
+}
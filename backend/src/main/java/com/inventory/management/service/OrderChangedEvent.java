@@ -0,0 +1,13 @@
+package com.inventory.management.service;
+
+/**
+ * Published by {@link OrderService} when a user's orders are placed ({@code orders} new PENDING
+ * orders) or moved to another status. Listeners react after the transaction commits.
+ */
+public record OrderChangedEvent(Type type, Long userId, int orders) {
+    
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED
+    }
+}
@@ -0,0 +1,154 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.OrderIdempotencyKey;
+import com.inventory.management.repository.OrderIdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outcomes of order submissions made with an {@code Idempotency-Key}, per user. The durable copy
+ * is written in the order's own transaction, so a key is recorded exactly when its order commits,
+ * and kept for {@code ttl-hours}. A bounded in-memory cache in front of it answers retries that
+ * reach the same replica without a query; retries elsewhere fall back to the table.
+ */
+@Service
+public class OrderIdempotencyService {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderIdempotencyService.class);
+    
+    public static final int MAX_KEY_LENGTH = 100;
+    
+    private final OrderIdempotencyKeyRepository repository;
+    private final int maxSize;
+    private final long ttlHours;
+    private final Map<CacheKey, CachedOutcome> entries;
+    private final Set<CacheKey> inFlight = ConcurrentHashMap.newKeySet();
+    
+    private final Counter replays;
+    
+    public OrderIdempotencyService(OrderIdempotencyKeyRepository repository,
+                                   @Value("${app.orders.idempotency.cache-size:10000}") int maxSize,
+                                   @Value("${app.orders.idempotency.ttl-hours:24}") long ttlHours,
+                                   MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.maxSize = maxSize;
+        this.ttlHours = ttlHours;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedOutcome> eldest) {
+                return size() > OrderIdempotencyService.this.maxSize;
+            }
+        };
+        this.replays = Counter.builder("orders.idempotency.replays").register(meterRegistry);
+    }
+    
+    /**
+     * Returns the order recorded for the key, if it has not expired.
+     */
+    public Optional<Outcome> find(Long userId, String key) {
+        CacheKey cacheKey = new CacheKey(userId, key);
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (entries) {
+            CachedOutcome cached = entries.get(cacheKey);
+            if (cached != null && cached.expiresAt.isAfter(now)) {
+                return Optional.of(cached.outcome);
+            }
+        }
+        Optional<OrderIdempotencyKey> stored = repository.findLive(userId, key, now);
+        stored.ifPresent(row -> cache(cacheKey, new Outcome(row.getOrderId(), row.getRequestHash()), row.getExpiresAt()));
+        return stored.map(row -> new Outcome(row.getOrderId(), row.getRequestHash()));
+    }
+    
+    /**
+     * Claims the key on this replica for the duration of one submission; false if it is already claimed.
+     */
+    public boolean begin(Long userId, String key) {
+        return inFlight.add(new CacheKey(userId, key));
+    }
+    
+    public void end(Long userId, String key) {
+        inFlight.remove(new CacheKey(userId, key));
+    }
+    
+    /**
+     * Records the order for the key. Must run in the order's transaction; a concurrent submission
+     * of the same key on another replica makes one of the two commits fail on the unique constraint.
+     */
+    public void record(Long userId, String key, String requestHash, Long orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        repository.deleteExpired(userId, key, now);
+        repository.save(new OrderIdempotencyKey(userId, key, requestHash, orderId, now, now.plusHours(ttlHours)));
+    }
+    
+    /**
+     * Caches an outcome once its transaction has committed.
+     */
+    public void remember(Long userId, String key, String requestHash, Long orderId) {
+        cache(new CacheKey(userId, key), new Outcome(orderId, requestHash), LocalDateTime.now().plusHours(ttlHours));
+    }
+    
+    public void replayed() {
+        replays.increment();
+    }
+    
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int removed = repository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) {
+            log.atDebug().addKeyValue("removed", removed).log("expired idempotency keys purged");
+        }
+    }
+    
+    /**
+     * Fingerprint of the order lines, in request order.
+     */
+    public static String hash(List<OrderItemRequest> items) {
+        StringBuilder canonical = new StringBuilder();
+        for (OrderItemRequest item : items) {
+            canonical.append(item.getProductId()).append(':').append(item.getQuantity()).append(':')
+                .append(item.getUnitPrice() != null ? item.getUnitPrice().stripTrailingZeros().toPlainString() : null)
+                .append(';');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private void cache(CacheKey cacheKey, Outcome outcome, LocalDateTime expiresAt) {
+        if (maxSize > 0) {
+            synchronized (entries) {
+                entries.put(cacheKey, new CachedOutcome(outcome, expiresAt));
+            }
+        }
+    }
+    
+    public record Outcome(Long orderId, String requestHash) {
+    }
+    
+    private record CacheKey(Long userId, String key) {
+    }
+    
+    private record CachedOutcome(Outcome outcome, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventory.management.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Order numbers that are unique across replicas without a database round trip. Each number packs
+ * milliseconds since 2025-01-01 (41 bits), this node's id (10 bits) and a
+ * per-millisecond sequence (12 bits), written as {@code ORD-} and 13 fixed-width Crockford base32
+ * digits. The digits sort in ASCII order, so numbers issued by one node increase and new rows land
+ * at the right edge of {@code idx_order_number}.
+ * <p>
+ * Every running replica needs its own node id: {@code app.orders.node-id} plus
+ * {@code app.orders.node-index}, so replicas sharing a configured base can add their StatefulSet
+ * ordinal. An id outside 0-1023 fails startup. When the clock moves backwards, or more than 4096
+ * numbers are taken within one millisecond, the generator keeps counting from the last timestamp
+ * it used instead of waiting, so it never repeats itself while the process lives.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    private static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] DIGITS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 13;
+
+    private final Clock clock;
+    private final long nodeId;
+    private long lastMillis = -1;
+    private long sequence;
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${app.orders.node-id:0}") int nodeId,
+                                @Value("${app.orders.node-index:0}") int nodeIndex) {
+        this(checkedNodeId(nodeId, nodeIndex), Clock.systemUTC());
+    }
+
+    OrderNumberGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("Order node id " + nodeId + " must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    static int checkedNodeId(int nodeId, int nodeIndex) {
+        if (nodeIndex < 0) {
+            throw new IllegalArgumentException("app.orders.node-index must not be negative");
+        }
+        // Summed as longs so that a large index cannot wrap around into the valid range
+        long sum = (long) nodeId + nodeIndex;
+        if (nodeId < 0 || sum >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("app.orders.node-id (" + nodeId + ") plus app.orders.node-index ("
+                + nodeIndex + ") must be between 0 and " + ((1 << NODE_BITS) - 1));
+        }
+        return (int) sum;
+    }
+
+    public String next() {
+        long value;
+        synchronized (this) {
+            long millis = clock.millis() - EPOCH;
+            if (millis > lastMillis) {
+                lastMillis = millis;
+                sequence = 0;
+            } else if (++sequence > MAX_SEQUENCE) {
+                lastMillis++;
+                sequence = 0;
+            }
+            value = (lastMillis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+        }
+
+        char[] number = new char[4 + LENGTH];
+        "ORD-".getChars(0, 4, number, 0);
+        for (int i = number.length - 1; i >= 4; i--) {
+            number[i] = DIGITS[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(number);
+    }
+}
@@ -1,37 +1,85 @@
 package com.inventory.management.service;
 
+import com.inventory.management.dto.BatchOrderResponse;
+import com.inventory.management.dto.BatchOrderResult;
+import com.inventory.management.dto.CreateOrderRequest;
+import com.inventory.management.dto.OrderCursor;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.dto.OrderItemView;
+import com.inventory.management.dto.OrderPage;
+import com.inventory.management.dto.OrderStatusUpdateResult;
+import com.inventory.management.dto.OrderStatusView;
+import com.inventory.management.dto.OrderView;
+import com.inventory.management.dto.StockLevel;
 import com.inventory.management.model.*;
 import com.inventory.management.repository.InventoryHistoryRepository;
+import com.inventory.management.repository.OrderBatchRepository;
 import com.inventory.management.repository.OrderItemRepository;
 import com.inventory.management.repository.OrderRepository;
 import com.inventory.management.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
-import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
     
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+    
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final InventoryHistoryRepository inventoryHistoryRepository;
     private final OrderItemRepository orderItemRepository;
+    private final OrderBatchRepository orderBatchRepository;
+    private final StockReservationLedger reservationLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderIdempotencyService idempotencyService;
+    private final InventoryOutbox inventoryOutbox;
     
     @Autowired
     public OrderService(OrderRepository orderRepository, ProductRepository productRepository, 
-                       InventoryHistoryRepository inventoryHistoryRepository, OrderItemRepository orderItemRepository) {
+                       InventoryHistoryRepository inventoryHistoryRepository, OrderItemRepository orderItemRepository,
+                       OrderBatchRepository orderBatchRepository, StockReservationLedger reservationLedger,
+                       ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                       OrderNumberGenerator orderNumberGenerator, OrderIdempotencyService idempotencyService,
+                       InventoryOutbox inventoryOutbox) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.inventoryHistoryRepository = inventoryHistoryRepository;
         this.orderItemRepository = orderItemRepository;
+        this.orderBatchRepository = orderBatchRepository;
+        this.reservationLedger = reservationLedger;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderNumberGenerator = orderNumberGenerator;
+        this.idempotencyService = idempotencyService;
+        this.inventoryOutbox = inventoryOutbox;
     }
     
     @Transactional(readOnly = true)
@@ -41,25 +89,134 @@ public class OrderService {
     
     @Transactional(readOnly = true)
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findByIdWithOrderItems(id);
+        return orderRepository.findWithItemsById(id);
     }
     
     @Transactional(readOnly = true)
     public Optional<Order> getOrderByIdAndUser(Long id, User user) {
-        return orderRepository.findByIdWithOrderItems(id)
-                .filter(order -> order.getUser().getId().equals(user.getId()));
+        return orderRepository.findWithItemsByIdAndUser(id, user);
     }
     
     @Transactional(readOnly = true)
-    public List<Order> getOrdersByUser(User user) {
-        return orderRepository.findByUserOrderByOrderDateDesc(user);
+    public OrderPage getOrdersByUser(User user, OrderCursor cursor, int limit) {
+        return loadPage(orderRepository.findPageByUser(user, cursor.orderDate(), cursor.id(), PageRequest.of(0, limit + 1)), limit);
+    }
+    
+    /**
+     * Creates an order from request lines. Every referenced product is loaded with a single
+     * set-based query; unknown ids or ids owned by another user are all reported in one error.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order createOrder(List<OrderItemRequest> items, User user) {
+        return createOrder(items, user, null);
+    }
+    
+    /**
+     * As {@link #createOrder(List, User)}, honouring an optional {@code Idempotency-Key}: a repeated
+     * submission with the same key and lines returns the order the first one created, without
+     * touching stock. The key is claimed on this replica while the order is placed; across replicas
+     * the unique key row decides, and the losing order rolls back.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Order createOrder(List<OrderItemRequest> items, User user, String idempotencyKey) {
+        if (user == null) {
+            throw new RuntimeException("User cannot be null");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("Order must contain at least one item");
+        }
+        
+        Map<Long, Integer> orderedByProduct = new TreeMap<>();
+        for (OrderItemRequest item : items) {
+            if (item.getProductId() == null) {
+                throw new RuntimeException("Product cannot be null in order item");
+            }
+            if (item.getQuantity() == null || item.getUnitPrice() == null) {
+                throw new RuntimeException("Product quantity and ordered quantity cannot be null");
+            }
+            // A negative quantity would pass the conditional stock update and add stock instead
+            if (item.getQuantity() <= 0) {
+                throw new RuntimeException("Quantity must be positive for product ID: " + item.getProductId());
+            }
+            orderedByProduct.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        
+        if (idempotencyKey == null) {
+            return placeRequestedOrder(items, orderedByProduct, user, null, null);
+        }
+        
+        String requestHash = OrderIdempotencyService.hash(items);
+        if (!idempotencyService.begin(user.getId(), idempotencyKey)) {
+            throw new IdempotencyKeyConflictException("A request with this Idempotency-Key is still being processed", true);
+        }
+        try {
+            Optional<Order> earlier = replay(user, idempotencyKey, requestHash);
+            if (earlier.isPresent()) {
+                return earlier.get();
+            }
+            Order order = placeRequestedOrder(items, orderedByProduct, user, idempotencyKey, requestHash);
+            idempotencyService.remember(user.getId(), idempotencyKey, requestHash, order.getId());
+            return order;
+        } catch (DataIntegrityViolationException e) {
+            // Another replica committed an order for the same key first
+            return replay(user, idempotencyKey, requestHash).orElseThrow(() -> e);
+        } finally {
+            idempotencyService.end(user.getId(), idempotencyKey);
+        }
+    }
+    
+    /**
+     * With the reservation ledger enabled, stock is reserved in memory and written before the order
+     * transaction starts, so a request waiting for its product's grouped update holds no connection.
+     * The reservation is given back if the order then fails.
+     */
+    private Order placeRequestedOrder(List<OrderItemRequest> items, Map<Long, Integer> orderedByProduct, User user,
+                                      String idempotencyKey, String requestHash) {
+        StockReservationLedger.Reservation reservation = reservationLedger.isEnabled()
+                ? reservationLedger.reserve(orderedByProduct, user.getId())
+                : null;
+        try {
+            return transactionTemplate.execute(status -> {
+                Map<Long, Product> productsById = resolveProducts(orderedByProduct.keySet(), user);
+                
+                Order order = new Order();
+                order.setUser(user);
+                for (OrderItemRequest item : items) {
+                    order.addOrderItem(new OrderItem(productsById.get(item.getProductId()), item.getQuantity(), item.getUnitPrice()));
+                }
+                Order savedOrder = placeOrder(order, user, productsById, reservation);
+                if (idempotencyKey != null) {
+                    idempotencyService.record(user.getId(), idempotencyKey, requestHash, savedOrder.getId());
+                }
+                return savedOrder;
+            });
+        } catch (RuntimeException e) {
+            if (reservation != null) {
+                reservationLedger.release(reservation);
+            }
+            throw e;
+        }
+    }
+    
+    private Optional<Order> replay(User user, String idempotencyKey, String requestHash) {
+        Optional<OrderIdempotencyService.Outcome> outcome = idempotencyService.find(user.getId(), idempotencyKey);
+        if (outcome.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!outcome.get().requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used for a different order", false);
+        }
+        Order order = orderRepository.findWithItemsById(outcome.get().orderId())
+                .orElseThrow(() -> new IdempotencyKeyConflictException(
+                    "The order created with this Idempotency-Key no longer exists", false));
+        idempotencyService.replayed();
+        log.atDebug().addKeyValue("userId", user.getId()).addKeyValue("orderId", order.getId())
+            .log("order replayed for idempotency key");
+        return Optional.of(order);
     }
     
     @Transactional
     public Order createOrder(Order order, User user) {
-        System.out.println("=== ORDER SERVICE START ===");
-        System.out.println("OrderService.createOrder called with order: " + order + ", user: " + user.getUsername());
-        
         if (order == null) {
             throw new RuntimeException("Order cannot be null");
         }
@@ -70,36 +227,221 @@ public class OrderService {
             throw new RuntimeException("Order must contain at least one item");
         }
         
-        // Step 1: Validate all products and check stock
-        System.out.println("=== VALIDATING PRODUCTS AND STOCK ===");
+        Set<Long> productIds = new LinkedHashSet<>();
         for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            if (product == null) {
+            if (item.getProduct() == null || item.getProduct().getId() == null) {
                 throw new RuntimeException("Product cannot be null in order item");
             }
+            productIds.add(item.getProduct().getId());
+        }
+        // Rebind every line to the managed instance loaded in this transaction
+        Map<Long, Product> productsById = resolveProducts(productIds, user);
+        for (OrderItem item : order.getOrderItems()) {
+            item.setProduct(productsById.get(item.getProduct().getId()));
+        }
+        return placeOrder(order, user, productsById, null);
+    }
+    
+    /**
+     * Places many orders in one transaction. Every product referenced by the batch is locked and
+     * read once; orders are then accepted in request order while stock lasts, and the rest are
+     * reported as failed without affecting the others. Accepted orders, their items, the stock
+     * decrements and the history rows are written with batched statements.
+     */
+    @Transactional
+    public BatchOrderResponse createOrders(List<CreateOrderRequest> requests, User user) {
+        if (user == null) {
+            throw new RuntimeException("User cannot be null");
+        }
+        
+        List<BatchOrderResult> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        Set<Long> productIds = new TreeSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validateOrderRequest(requests.get(i));
+            if (error != null) {
+                results.set(i, BatchOrderResult.failed(i, error));
+            } else {
+                requests.get(i).getOrderItems().forEach(item -> productIds.add(item.getProductId()));
+            }
+        }
+        
+        // One locking read for the whole batch; stock is then tracked in memory
+        Map<Long, Product> productsById = new HashMap<>();
+        Map<Long, Integer> available = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Product product : productRepository.findByIdInAndUserForUpdate(productIds, user)) {
+                productsById.put(product.getId(), product);
+                available.put(product.getId(), product.getQuantity() != null ? product.getQuantity() : 0);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Order> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<InventoryHistory> history = new ArrayList<>();
+        Map<Long, Integer> decrements = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results.get(i) != null) {
+                continue;
+            }
+            List<OrderItemRequest> items = requests.get(i).getOrderItems();
+            Map<Long, Integer> orderedByProduct = new TreeMap<>();
+            for (OrderItemRequest item : items) {
+                orderedByProduct.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
             
-            if (product.getUser() == null || !product.getUser().getId().equals(user.getId())) {
-                throw new RuntimeException("Product '" + product.getName() + "' does not belong to this user");
+            List<Long> missing = orderedByProduct.keySet().stream()
+                    .filter(id -> !productsById.containsKey(id))
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                results.set(i, BatchOrderResult.failed(i, "Product not found or you don't have access to it. Product ID(s): " +
+                    missing.stream().map(String::valueOf).collect(Collectors.joining(", "))));
+                continue;
+            }
+            List<InsufficientStockException.StockShortfall> shortfalls = new ArrayList<>();
+            for (Map.Entry<Long, Integer> entry : orderedByProduct.entrySet()) {
+                Integer stock = available.get(entry.getKey());
+                if (stock < entry.getValue()) {
+                    shortfalls.add(new InsufficientStockException.StockShortfall(
+                        entry.getKey(), productsById.get(entry.getKey()).getName(), entry.getValue(), stock));
+                }
+            }
+            if (!shortfalls.isEmpty()) {
+                results.set(i, BatchOrderResult.failed(i, InsufficientStockException.describe(shortfalls)));
+                continue;
             }
             
-            Integer currentQuantity = product.getQuantity();
+            Order order = new Order();
+            order.setOrderNumber(orderNumberGenerator.next());
+            order.setUser(user);
+            order.setOrderDate(now);
+            order.setStatus("PENDING");
+            for (OrderItemRequest item : items) {
+                Product product = productsById.get(item.getProductId());
+                order.addOrderItem(new OrderItem(product, item.getQuantity(), item.getUnitPrice()));
+                
+                Integer previousQuantity = available.get(product.getId());
+                Integer newQuantity = previousQuantity - item.getQuantity();
+                available.put(product.getId(), newQuantity);
+                decrements.merge(product.getId(), item.getQuantity(), Integer::sum);
+                history.add(new InventoryHistory(
+                    product, user, "ORDER", previousQuantity, newQuantity,
+                    "Order placed: " + order.getOrderNumber() + " - Quantity: " + item.getQuantity()
+                ));
+            }
+            order.setTotalAmount(order.getOrderItems().stream()
+                    .map(OrderItem::getTotalPrice)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+            accepted.add(order);
+            acceptedIndexes.add(i);
+        }
+        
+        if (!accepted.isEmpty()) {
+            orderBatchRepository.insertOrders(accepted);
+            orderBatchRepository.insertOrderItems(accepted);
+            orderBatchRepository.decrementStock(decrements, now);
+            orderBatchRepository.insertHistory(history);
+            inventoryOutbox.appendAll(history);
+            for (int i = 0; i < accepted.size(); i++) {
+                results.set(acceptedIndexes.get(i), BatchOrderResult.succeeded(acceptedIndexes.get(i), accepted.get(i)));
+            }
+            List<StockChangedEvent.Level> levels = new ArrayList<>(decrements.size());
+            for (Long productId : decrements.keySet()) {
+                eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, productId, user.getId()));
+                levels.add(StockChangedEvent.Level.of(productsById.get(productId), available.get(productId)));
+            }
+            eventPublisher.publishEvent(new StockChangedEvent(user.getId(), levels));
+            eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.Type.CREATED, user.getId(), accepted.size()));
+        }
+        
+        log.atDebug().addKeyValue("userId", user.getId()).addKeyValue("orders", requests.size())
+            .addKeyValue("accepted", accepted.size()).addKeyValue("lines", history.size()).log("order batch placed");
+        return new BatchOrderResponse(results);
+    }
+    
+    static String validateOrderRequest(CreateOrderRequest request) {
+        if (request == null || request.getOrderItems() == null || request.getOrderItems().isEmpty()) {
+            return "Order must contain at least one item";
+        }
+        for (OrderItemRequest item : request.getOrderItems()) {
+            if (item == null || item.getProductId() == null) {
+                return "Product cannot be null in order item";
+            }
+            if (item.getQuantity() == null || item.getUnitPrice() == null) {
+                return "Product quantity and ordered quantity cannot be null";
+            }
+            if (item.getQuantity() <= 0) {
+                return "Quantity must be positive for product ID: " + item.getProductId();
+            }
+        }
+        return null;
+    }
+    
+    private Map<Long, Product> resolveProducts(Collection<Long> productIds, User user) {
+        Map<Long, Product> productsById = new HashMap<>();
+        for (Product product : productRepository.findByIdInAndUser(productIds, user)) {
+            productsById.put(product.getId(), product);
+        }
+        
+        List<Long> missing = productIds.stream()
+                .filter(id -> !productsById.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Product not found or you don't have access to it. Product ID(s): " +
+                missing.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+        }
+        return productsById;
+    }
+    
+    /**
+     * Persists the order, its items and history. Stock is decremented here unless a ledger
+     * reservation already took it.
+     */
+    private Order placeOrder(Order order, User user, Map<Long, Product> productsById,
+                             StockReservationLedger.Reservation reservation) {
+        // Step 1: Sum the lines per product; a TreeMap keeps the updates below in product id order
+        // so that concurrent orders touching the same products always lock rows in the same order
+        Map<Long, Integer> orderedByProduct = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
             Integer orderedQuantity = item.getQuantity();
-            
-            if (currentQuantity == null || orderedQuantity == null) {
+            if (orderedQuantity == null) {
                 throw new RuntimeException("Product quantity and ordered quantity cannot be null");
             }
-            
-            if (currentQuantity < orderedQuantity) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName() + 
-                    ". Available: " + currentQuantity + ", Requested: " + orderedQuantity);
+            orderedByProduct.merge(item.getProduct().getId(), orderedQuantity, Integer::sum);
+        }
+        
+        // Step 2: Reserve stock with one conditional update per product. The check and the decrement
+        // happen in the database, so two orders can never both consume the last units of a product.
+        LocalDateTime now = LocalDateTime.now();
+        if (reservation == null) {
+            List<Long> failedProductIds = new ArrayList<>();
+            for (Map.Entry<Long, Integer> entry : orderedByProduct.entrySet()) {
+                int updated = productRepository.decrementStock(entry.getKey(), user, entry.getValue(), now);
+                if (updated == 0) {
+                    failedProductIds.add(entry.getKey());
+                }
+            }
+            if (!failedProductIds.isEmpty()) {
+                // Rolls back the reservations that did succeed
+                throw insufficientStock(failedProductIds, orderedByProduct, productsById);
             }
         }
         
-        // Step 2: Create and save the order
-        System.out.println("=== CREATING ORDER ===");
-        order.setOrderNumber("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
+        // The ledger's updates committed apart from this transaction, so concurrent orders may have
+        // changed stock since; it reports what each of this order's updates left instead
+        Map<Long, Integer> quantityAfter = new HashMap<>();
+        if (reservation != null) {
+            quantityAfter.putAll(reservation.stockAfter());
+        } else {
+            for (StockLevel level : productRepository.findStockLevels(orderedByProduct.keySet())) {
+                quantityAfter.put(level.productId(), level.quantity());
+            }
+        }
+        
+        // Step 3: Create and save the order
+        order.setOrderNumber(orderNumberGenerator.next());
         order.setUser(user);
-        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDate(now);
         order.setStatus("PENDING");
         
         BigDecimal totalAmount = order.getOrderItems().stream()
@@ -109,66 +451,144 @@ public class OrderService {
         
         // Save order without order items first
         Order savedOrder = orderRepository.save(order);
-        System.out.println("Order saved with ID: " + savedOrder.getId());
         
-        // Step 3: Update product quantities and create inventory history
-        System.out.println("=== UPDATING PRODUCTS AND CREATING HISTORY ===");
+        // Step 4: Create inventory history, replaying the lines from the quantity before the order
+        Map<Long, Integer> running = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : orderedByProduct.entrySet()) {
+            running.put(entry.getKey(), quantityAfter.get(entry.getKey()) + entry.getValue());
+        }
         for (OrderItem item : order.getOrderItems()) {
-            Product product = item.getProduct();
-            Integer currentQuantity = product.getQuantity();
+            Product product = productsById.get(item.getProduct().getId());
+            Integer previousQuantity = running.get(product.getId());
             Integer orderedQuantity = item.getQuantity();
+            Integer newQuantity = previousQuantity - orderedQuantity;
+            running.put(product.getId(), newQuantity);
+            log.atTrace().addKeyValue("productId", product.getId()).addKeyValue("from", previousQuantity)
+                .addKeyValue("to", newQuantity).log("stock decremented");
             
-            // Update product quantity
-            product.setQuantity(currentQuantity - orderedQuantity);
-            productRepository.save(product);
-            System.out.println("Updated product " + product.getName() + " quantity from " + currentQuantity + " to " + product.getQuantity());
-            
-            // Create inventory history
             InventoryHistory history = new InventoryHistory(
-                product, user, "ORDER", currentQuantity, product.getQuantity(),
+                product, user, "ORDER", previousQuantity, newQuantity,
                 "Order placed: " + savedOrder.getOrderNumber() + " - Quantity: " + orderedQuantity
             );
             inventoryHistoryRepository.save(history);
-            System.out.println("Created inventory history for product: " + product.getName());
+            inventoryOutbox.append(history);
         }
         
-        // Step 4: Save order items separately
-        System.out.println("=== SAVING ORDER ITEMS ===");
+        // The bulk update bypassed (and cleared) the persistence context; keep the returned products in step
+        // with the database. Ledger reservations were committed before these products were loaded.
+        if (reservation == null) {
+            for (Map.Entry<Long, Integer> entry : quantityAfter.entrySet()) {
+                Product product = productsById.get(entry.getKey());
+                product.setQuantity(entry.getValue());
+                product.setUpdatedAt(now);
+            }
+        }
+        
+        // Step 5: Save order items separately
         for (OrderItem item : order.getOrderItems()) {
             item.setOrder(savedOrder);
             orderItemRepository.save(item);
-            System.out.println("Saved order item for product: " + item.getProduct().getName());
         }
         
-        System.out.println("=== ORDER SERVICE SUCCESS ===");
+        List<StockChangedEvent.Level> levels = new ArrayList<>(quantityAfter.size());
+        for (Map.Entry<Long, Integer> entry : quantityAfter.entrySet()) {
+            levels.add(StockChangedEvent.Level.of(productsById.get(entry.getKey()), entry.getValue()));
+        }
+        eventPublisher.publishEvent(new StockChangedEvent(user.getId(), levels));
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.Type.CREATED, user.getId(), 1));
+        
+        log.atDebug().addKeyValue("userId", user.getId()).addKeyValue("orderId", savedOrder.getId())
+            .addKeyValue("orderNumber", savedOrder.getOrderNumber()).addKeyValue("items", order.getOrderItems().size())
+            .log("order created");
         return savedOrder;
     }
     
-    public Order updateOrderStatus(Long id, String status) {
-        Order order = orderRepository.findByIdWithOrderItems(id)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setStatus(status);
-        return orderRepository.save(order);
+    private InsufficientStockException insufficientStock(List<Long> failedProductIds, Map<Long, Integer> orderedByProduct,
+                                                         Map<Long, Product> productsById) {
+        Map<Long, Integer> available = new HashMap<>();
+        for (StockLevel level : productRepository.findStockLevels(failedProductIds)) {
+            available.put(level.productId(), level.quantity());
+        }
+        List<InsufficientStockException.StockShortfall> shortfalls = new ArrayList<>();
+        for (Long productId : failedProductIds) {
+            shortfalls.add(new InsufficientStockException.StockShortfall(
+                productId, productsById.get(productId).getName(), orderedByProduct.get(productId), available.get(productId)));
+        }
+        log.atDebug().addKeyValue("productIds", failedProductIds).log("stock reservation failed");
+        return new InsufficientStockException(shortfalls);
     }
     
-    @Transactional(readOnly = true)
-    public List<Order> getOrdersByStatus(String status) {
-        return orderRepository.findByStatusOrderByOrderDateDesc(status);
+    /**
+     * Moves the user's orders to {@code status} with one set-based update, where the transition is
+     * allowed. Only ids and statuses are read back, to report orders that were not moved.
+     */
+    public OrderStatusUpdateResult updateOrderStatus(Collection<Long> orderIds, String status, User user) {
+        OrderStatus target = OrderStatus.parse(status);
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one order id is required");
+        }
+        
+        List<String> from = target.allowedFrom().stream().map(Enum::name).collect(Collectors.toList());
+        int updated = from.isEmpty() ? 0 : orderRepository.updateStatus(ids, user, target.name(), from);
+        if (updated > 0) {
+            eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.Type.STATUS_CHANGED, user.getId(), updated));
+        }
+        
+        Map<Long, String> current = new HashMap<>();
+        for (OrderStatusView view : orderRepository.findStatuses(ids, user)) {
+            current.put(view.id(), view.status());
+        }
+        List<OrderStatusView> rejected = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (Long id : ids) {
+            String now = current.get(id);
+            if (now == null) {
+                notFound.add(id);
+            } else if (!now.equals(target.name())) {
+                rejected.add(new OrderStatusView(id, now));
+            }
+        }
+        log.atDebug().addKeyValue("userId", user.getId()).addKeyValue("status", target.name())
+            .addKeyValue("requested", ids.size()).addKeyValue("updated", updated).log("order status updated");
+        return new OrderStatusUpdateResult(target.name(), updated, rejected, notFound);
     }
     
     @Transactional(readOnly = true)
-    public List<Order> getOrdersByStatusAndUser(String status, User user) {
-        return orderRepository.findByStatusAndUserOrderByOrderDateDesc(status, user);
+    public OrderPage getOrdersByStatusAndUser(String status, User user, OrderCursor cursor, int limit) {
+        return loadPage(orderRepository.findPageByUserAndStatus(user, status, cursor.orderDate(), cursor.id(),
+            PageRequest.of(0, limit + 1)), limit);
     }
     
     @Transactional(readOnly = true)
-    public List<Order> getRecentOrdersByUser(User user, int days) {
+    public OrderPage getRecentOrdersByUser(User user, int days, OrderCursor cursor, int limit) {
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        return orderRepository.findRecentOrdersByUser(user, startDate);
+        return loadPage(orderRepository.findRecentPageByUser(user, startDate, cursor.orderDate(), cursor.id(),
+            PageRequest.of(0, limit + 1)), limit);
     }
     
-    @Transactional(readOnly = true)
-    public long getOrderCountByStatus(User user, String status) {
-        return orderRepository.countByUserAndStatus(user, status);
+    /**
+     * Second phase of a keyset page: {@code headers} holds up to {@code limit + 1} orders in listing order,
+     * the extra one only signalling that another page exists. The page's lines are read in one projection
+     * query and attached to their orders.
+     */
+    private OrderPage loadPage(List<OrderView> headers, int limit) {
+        boolean more = headers.size() > limit;
+        List<OrderView> page = more ? headers.subList(0, limit) : headers;
+        if (page.isEmpty()) {
+            return new OrderPage(List.of(), null);
+        }
+        Map<Long, List<OrderItemView>> itemsByOrder = new HashMap<>();
+        for (OrderItemView item : orderItemRepository.findViewsByOrderIds(page.stream().map(OrderView::id).toList())) {
+            itemsByOrder.computeIfAbsent(item.orderId(), id -> new ArrayList<>()).add(item);
+        }
+        List<OrderView> orders = new ArrayList<>(page.size());
+        for (OrderView order : page) {
+            orders.add(order.withItems(itemsByOrder.getOrDefault(order.id(), List.of())));
+        }
+        OrderView last = orders.get(orders.size() - 1);
+        String nextCursor = more ? new OrderCursor(last.orderDate(), last.id()).encode() : null;
+        return new OrderPage(orders, nextCursor);
     }
 }
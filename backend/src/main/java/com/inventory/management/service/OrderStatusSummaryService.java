@@ -0,0 +1,121 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.OrderStatusCount;
+import com.inventory.management.dto.OrderStatusSummary;
+import com.inventory.management.model.OrderStatus;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user order counts by status, from one grouped query. With {@code live-counters} enabled the
+ * result is kept per user and adjusted as orders are placed on this replica; a status change drops
+ * the user's counts, since a bulk move does not report the statuses it moved from. Entries expire
+ * after {@code ttl-seconds} so that changes made on other replicas show up.
+ */
+@Service
+public class OrderStatusSummaryService {
+
+    private static final int STRIPES = 64;
+
+    private final OrderRepository orderRepository;
+    private final boolean liveCounters;
+    private final long ttlMillis;
+    private final int maxUsers;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every change to a user's orders; a count read across a change is not kept
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public OrderStatusSummaryService(OrderRepository orderRepository,
+                                     @Value("${app.orders.status-summary.live-counters:false}") boolean liveCounters,
+                                     @Value("${app.orders.status-summary.ttl-seconds:300}") long ttlSeconds,
+                                     @Value("${app.orders.status-summary.max-users:10000}") int maxUsers,
+                                     MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.liveCounters = liveCounters;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxUsers = maxUsers;
+        this.hits = Counter.builder("orders.summary.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("orders.summary.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    // Not transactional: a cached answer needs no connection, and the repository query runs in its own
+    public OrderStatusSummary getSummary(User user) {
+        Long userId = user.getId();
+        if (!liveCounters) {
+            return summarize(load(user));
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && now - entry.loadedAt() < ttlMillis) {
+            hits.increment();
+            return summarize(entry.counts());
+        }
+        misses.increment();
+        long generation = generations.get(stripe(userId));
+        Map<String, Long> counts = load(user);
+        if (entries.size() < maxUsers || entries.containsKey(userId)) {
+            // Under the map's per-key lock, so no change can land between the check and the put
+            entries.compute(userId, (id, current) ->
+                generations.get(stripe(id)) == generation ? new Entry(counts, now) : current);
+        }
+        return summarize(counts);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (!liveCounters) {
+            return;
+        }
+        entries.compute(event.userId(), (id, current) -> {
+            generations.incrementAndGet(stripe(id));
+            if (current == null || event.type() == OrderChangedEvent.Type.STATUS_CHANGED) {
+                return null;
+            }
+            Map<String, Long> counts = new LinkedHashMap<>(current.counts());
+            counts.merge(OrderStatus.PENDING.name(), (long) event.orders(), Long::sum);
+            return new Entry(Collections.unmodifiableMap(counts), current.loadedAt());
+        });
+    }
+
+    private Map<String, Long> load(User user) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (OrderStatusCount row : orderRepository.countByUserGroupByStatus(user)) {
+            counts.merge(row.status() != null ? row.status() : "UNKNOWN", row.count(), Long::sum);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static OrderStatusSummary summarize(Map<String, Long> counts) {
+        Map<String, Long> ordered = new LinkedHashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            ordered.put(status.name(), 0L);
+        }
+        long total = 0;
+        for (Map.Entry<String, Long> count : counts.entrySet()) {
+            ordered.merge(count.getKey(), count.getValue(), Long::sum);
+            total += count.getValue();
+        }
+        return new OrderStatusSummary(ordered, total);
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId.hashCode(), STRIPES);
+    }
+
+    private record Entry(Map<String, Long> counts, long loadedAt) {
+    }
+}
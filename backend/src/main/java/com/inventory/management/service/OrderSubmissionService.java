@@ -0,0 +1,358 @@
+package com.inventory.management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.management.dto.BatchOrderResponse;
+import com.inventory.management.dto.BatchOrderResult;
+import com.inventory.management.dto.CreateOrderRequest;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.OrderSubmission;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.OrderSubmissionRepository;
+import com.inventory.management.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional asynchronous order acceptance ({@code app.orders.async.enabled}). {@code POST /api/orders}
+ * validates the lines, stores them in {@code order_submissions} and answers 202; the order is placed
+ * later by a worker. Workers claim up to {@code batch-size} queued submissions at a time with a
+ * conditional update, so replicas can share the queue, and place each user's share of the claim with
+ * {@link OrderService#createOrders}: one transaction, one locking read per product and one stock
+ * update per product for the whole micro-batch. Submission statuses are written in that same
+ * transaction, so a claim abandoned by a crash can simply be queued again. The transaction first locks
+ * the rows still held by its claim, so a worker whose claim went stale and was taken over places
+ * nothing. Claims a worker gives up on (shutdown, unexpected failure) are released straight away, and
+ * a submission whose claims went stale {@code max-attempts} times is failed instead of queued again.
+ */
+@Service
+public class OrderSubmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSubmissionService.class);
+
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final int maxAttempts;
+    private final long claimTimeoutSeconds;
+    private final long retentionHours;
+
+    private final OrderSubmissionRepository repository;
+    private final UserRepository userRepository;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledThreadPoolExecutor executor;
+    private volatile boolean running;
+    private final AtomicBoolean wakePending = new AtomicBoolean();
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong oldestQueuedMillis = new AtomicLong();
+    private final Counter enqueued;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter retried;
+    private final Timer lag;
+    private final DistributionSummary claimSize;
+
+    public OrderSubmissionService(@Value("${app.orders.async.enabled:false}") boolean enabled,
+                                  @Value("${app.orders.async.workers:2}") int workers,
+                                  @Value("${app.orders.async.batch-size:100}") int batchSize,
+                                  @Value("${app.orders.async.poll-interval-ms:200}") long pollIntervalMillis,
+                                  @Value("${app.orders.async.max-attempts:3}") int maxAttempts,
+                                  @Value("${app.orders.async.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+                                  @Value("${app.orders.async.retention-hours:24}") long retentionHours,
+                                  OrderSubmissionRepository repository, UserRepository userRepository,
+                                  OrderService orderService, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+        this.retentionHours = retentionHours;
+        this.repository = repository;
+        this.userRepository = userRepository;
+        this.orderService = orderService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.enqueued = Counter.builder("orders.async.enqueued").register(meterRegistry);
+        this.completed = Counter.builder("orders.async.processed").tag("result", "completed").register(meterRegistry);
+        this.failed = Counter.builder("orders.async.processed").tag("result", "failed").register(meterRegistry);
+        this.retried = Counter.builder("orders.async.retried").register(meterRegistry);
+        this.lag = Timer.builder("orders.async.lag").register(meterRegistry);
+        this.claimSize = DistributionSummary.builder("orders.async.batch.size").register(meterRegistry);
+        Gauge.builder("orders.async.queue.depth", queueDepth, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("orders.async.queue.oldest.seconds", this, OrderSubmissionService::oldestQueuedSeconds)
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Validates and stores an order for a worker to place. With an idempotency key, a repeated
+     * submission returns the submission the key was first used for.
+     */
+    public OrderSubmission enqueue(List<OrderItemRequest> items, User user, String idempotencyKey) {
+        CreateOrderRequest request = new CreateOrderRequest(items);
+        String error = OrderService.validateOrderRequest(request);
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
+
+        String requestHash = idempotencyKey != null ? OrderIdempotencyService.hash(items) : null;
+        if (idempotencyKey != null) {
+            Optional<OrderSubmission> earlier = repository.findByUserIdAndIdempotencyKey(user.getId(), idempotencyKey);
+            if (earlier.isPresent()) {
+                return sameRequest(earlier.get(), requestHash);
+            }
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order could not be queued", e);
+        }
+        OrderSubmission submission;
+        try {
+            submission = repository.saveAndFlush(new OrderSubmission(user.getId(), idempotencyKey, requestHash, payload));
+        } catch (DataIntegrityViolationException e) {
+            // The same key was submitted concurrently and the other request stored it first
+            return repository.findByUserIdAndIdempotencyKey(user.getId(), idempotencyKey)
+                    .map(earlier -> sameRequest(earlier, requestHash))
+                    .orElseThrow(() -> e);
+        }
+        enqueued.increment();
+        log.atDebug().addKeyValue("userId", user.getId()).addKeyValue("submissionId", submission.getId())
+            .addKeyValue("items", items.size()).log("order queued");
+        wake();
+        return submission;
+    }
+
+    public Optional<OrderSubmission> getSubmission(Long id, User user) {
+        return repository.findByIdAndUserId(id, user.getId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ScheduledThreadPoolExecutor(workers, runnable -> {
+            Thread thread = new Thread(runnable, "order-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.scheduleWithFixedDelay(this::drain, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Queues claims abandoned by a crashed worker again, or fails them once they have used up
+     * {@code max-attempts}, drops finished submissions after {@code retention-hours} and refreshes
+     * the queue gauges.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.async.maintenance-interval-ms:10000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusSeconds(claimTimeoutSeconds);
+        int exhausted = repository.failStale(cutoff, maxAttempts,
+            "Order could not be placed: worker did not finish after " + maxAttempts + " attempts", now);
+        if (exhausted > 0) {
+            failed.increment(exhausted);
+            log.atWarn().addKeyValue("submissions", exhausted).log("stale order claims failed after max attempts");
+        }
+        int requeued = repository.requeueStale(cutoff, maxAttempts);
+        if (requeued > 0) {
+            log.atWarn().addKeyValue("submissions", requeued).log("stale order claims queued again");
+        }
+        repository.deleteFinishedBefore(now.minusHours(retentionHours));
+        queueDepth.set(repository.countByStatus(OrderSubmission.QUEUED));
+        LocalDateTime oldest = repository.findOldestQueuedAt();
+        oldestQueuedMillis.set(oldest != null ? Duration.between(oldest, now).toMillis() : 0);
+    }
+
+    private void wake() {
+        if (executor != null && wakePending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakePending.set(false);
+                drain();
+            });
+        }
+    }
+
+    private void drain() {
+        try {
+            while (running) {
+                List<Long> ids = repository.findQueuedIds(PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return;
+                }
+                String token = UUID.randomUUID().toString();
+                if (repository.claim(ids, token, LocalDateTime.now()) > 0) {
+                    try {
+                        process(token);
+                    } finally {
+                        // No-op once every submission has an outcome; otherwise the rest is queued now
+                        // rather than after claim-timeout-seconds
+                        repository.release(token);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep the scheduled task alive; a claim that could not be released is picked up again
+            // after claim-timeout-seconds
+            log.error("Order worker failed", e);
+        }
+    }
+
+    private void process(String token) {
+        List<OrderSubmission> claimed = repository.findClaimed(token);
+        claimSize.record(claimed.size());
+        Map<Long, List<Long>> idsByUser = new LinkedHashMap<>();
+        for (OrderSubmission submission : claimed) {
+            idsByUser.computeIfAbsent(submission.getUserId(), id -> new ArrayList<>()).add(submission.getId());
+        }
+        for (Map.Entry<Long, List<Long>> entry : idsByUser.entrySet()) {
+            if (!running) {
+                return;
+            }
+            placeForUser(entry.getKey(), entry.getValue(), token);
+        }
+    }
+
+    void placeForUser(Long userId, List<Long> ids, String token) {
+        List<OrderSubmission> finished;
+        try {
+            finished = transactionTemplate.execute(status -> {
+                List<OrderSubmission> claimed = repository.lockClaimed(ids, token);
+                List<OrderSubmission> submissions = new ArrayList<>();
+                for (OrderSubmission submission : claimed) {
+                    // Claimed max-attempts times already, each time released without an outcome
+                    if (submission.getAttempts() > maxAttempts) {
+                        submission.fail("Order could not be placed after " + maxAttempts + " attempts");
+                    } else {
+                        submissions.add(submission);
+                    }
+                }
+                User user = userRepository.findById(userId).orElse(null);
+                if (user == null) {
+                    submissions.forEach(submission -> submission.fail("User no longer exists"));
+                    return claimed;
+                }
+
+                List<OrderSubmission> readable = new ArrayList<>();
+                List<CreateOrderRequest> requests = new ArrayList<>();
+                for (OrderSubmission submission : submissions) {
+                    try {
+                        requests.add(objectMapper.readValue(submission.getPayload(), CreateOrderRequest.class));
+                        readable.add(submission);
+                    } catch (JsonProcessingException e) {
+                        submission.fail("Queued order could not be read: " + e.getOriginalMessage());
+                    }
+                }
+                if (!requests.isEmpty()) {
+                    BatchOrderResponse response = orderService.createOrders(requests, user);
+                    for (int i = 0; i < readable.size(); i++) {
+                        BatchOrderResult result = response.getResults().get(i);
+                        if (result.isSuccess()) {
+                            readable.get(i).complete(result.getOrderId());
+                        } else {
+                            readable.get(i).fail(result.getError());
+                        }
+                    }
+                }
+                return claimed;
+            });
+        } catch (RuntimeException e) {
+            log.atWarn().addKeyValue("userId", userId).addKeyValue("submissions", ids.size())
+                .addKeyValue("error", e.getMessage()).log("order micro-batch failed");
+            retryOrFail(ids, token, e);
+            return;
+        }
+
+        for (OrderSubmission submission : finished) {
+            (OrderSubmission.COMPLETED.equals(submission.getStatus()) ? completed : failed).increment();
+            lag.record(Duration.between(submission.getCreatedAt(), submission.getCompletedAt()));
+        }
+        log.atDebug().addKeyValue("userId", userId).addKeyValue("submissions", finished.size())
+            .log("order micro-batch placed");
+    }
+
+    private void retryOrFail(List<Long> ids, String token, RuntimeException cause) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (OrderSubmission submission : repository.lockClaimed(ids, token)) {
+                if (submission.getAttempts() >= maxAttempts) {
+                    submission.fail("Order could not be placed: " + cause.getMessage());
+                    failed.increment();
+                } else {
+                    submission.setStatus(OrderSubmission.QUEUED);
+                    submission.setClaimToken(null);
+                    retried.increment();
+                }
+            }
+        });
+    }
+
+    private OrderSubmission sameRequest(OrderSubmission earlier, String requestHash) {
+        if (!requestHash.equals(earlier.getRequestHash())) {
+            throw new IdempotencyKeyConflictException("Idempotency-Key was already used for a different order", false);
+        }
+        return earlier;
+    }
+
+    private double oldestQueuedSeconds() {
+        return oldestQueuedMillis.get() / 1000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.inventory.management.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for BCrypt work (login verification and registration hashing), sized separately
+ * from Tomcat's workers so a burst of logins cannot starve product and order traffic. When all
+ * threads are busy and the queue is full, {@link #submit} throws {@link RejectedExecutionException}
+ * immediately so the caller can answer 429 instead of queueing unboundedly.
+ */
+@Service
+public class PasswordHashingExecutor {
+    
+    private final ThreadPoolExecutor executor;
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejected;
+    
+    public PasswordHashingExecutor(@Value("${app.security.hashing.threads:4}") int threads,
+                                   @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        
+        this.waitTimer = Timer.builder("auth.hashing.queue.wait").register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.hashing.duration").register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected").register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+    
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(task);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,17 @@
+package com.inventory.management.service;
+
+/**
+ * Published by {@link ProductService} whenever a product is created, edited, restocked or removed,
+ * and by {@link OrderService} when bulk order ingestion changes stock. {@code STOCK_CHANGED} means
+ * only the quantity changed.
+ * Listeners that keep in-memory views of products react after the transaction commits.
+ */
+public record ProductChangedEvent(Type type, Long productId, Long userId) {
+    
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STOCK_CHANGED,
+        DELETED
+    }
+}
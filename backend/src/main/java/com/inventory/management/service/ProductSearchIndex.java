@@ -0,0 +1,597 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.ProductSearchDocument;
+import com.inventory.management.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory search over product SKU, name and description ({@code app.products.search-index.enabled}).
+ * Each user's products are indexed by character trigram: a query term of three or more characters
+ * only examines products holding every trigram of the term, and each candidate is then checked for
+ * the whole term. Shorter terms are checked against every product of the user. Every term must
+ * match; results are ranked by where the terms matched (SKU over name over description, whole and
+ * leading matches over inner ones) and then by name.
+ * <p>
+ * A user's index is built from the database on their first search, or for every user at startup with
+ * {@code preload}, and kept current from {@link ProductChangedEvent}s after each commit. The database
+ * stays authoritative. Indexes are only kept up to {@code max-products} products in total, counting
+ * deleted products still numbered in an index; beyond that the least recently searched users are
+ * dropped and rebuilt when next needed. A user with more
+ * products than the whole budget is not indexed and {@link #search} returns empty, leaving the caller
+ * to query the database.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // A term matched as the whole field, at its start, at the start of a word, or anywhere
+    private static final int SKU_EXACT = 100;
+    private static final int SKU_PREFIX = 60;
+    private static final int SKU_CONTAINS = 30;
+    private static final int NAME_PREFIX = 40;
+    private static final int NAME_WORD = 30;
+    private static final int NAME_CONTAINS = 20;
+    private static final int DESCRIPTION_CONTAINS = 5;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(Hit::name)
+            .thenComparingLong(Hit::productId);
+
+    private final boolean enabled;
+    private final boolean preload;
+    private final long maxProducts;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnly;
+    private final Map<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong indexedProducts = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final Counter indexedQueries;
+    private final Counter fallbackQueries;
+
+    public ProductSearchIndex(@Value("${app.products.search-index.enabled:false}") boolean enabled,
+                              @Value("${app.products.search-index.preload:false}") boolean preload,
+                              @Value("${app.products.search-index.max-products:1000000}") long maxProducts,
+                              ProductRepository productRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.preload = preload;
+        this.maxProducts = maxProducts;
+        this.productRepository = productRepository;
+        // Also used after a commit, where the finished transaction cannot be joined
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setReadOnly(true);
+
+        this.indexedQueries = Counter.builder("products.search.queries").tag("path", "index").register(meterRegistry);
+        this.fallbackQueries = Counter.builder("products.search.queries").tag("path", "database").register(meterRegistry);
+        Gauge.builder("products.search.index.products", indexedProducts, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("products.search.index.users", indexes, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ranked product ids of the user's products matching every whitespace-separated term of
+     * {@code query}, after {@code cursor} (a {@link Hits#nextCursor()} from the same query, or null).
+     * Empty when the index is disabled or cannot hold the user's products.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public Optional<Hits> search(Long userId, String query, String cursor, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        SearchCursor after = SearchCursor.decode(cursor);
+        UserIndex index = loadedIndex(userId);
+        if (index == null) {
+            fallbackQueries.increment();
+            return Optional.empty();
+        }
+        indexedQueries.increment();
+        index.lastUsed = System.nanoTime();
+        index.lock.readLock().lock();
+        try {
+            return Optional.of(index.search(terms(query), after, limit));
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the user's index so that it is rebuilt from the database on their next search.
+     */
+    public void invalidate(Long userId) {
+        UserIndex index = indexes.remove(userId);
+        if (index == null) {
+            return;
+        }
+        // Searches already holding the index finish on it; updates see it unloaded and skip it
+        index.lock.writeLock().lock();
+        try {
+            if (index.loaded) {
+                index.loaded = false;
+                indexedProducts.addAndGet(-index.footprint());
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!enabled || !preload) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Long> userIds = readOnly.execute(status -> productRepository.findUserIdsWithProducts());
+        for (Long userId : userIds) {
+            if (indexedProducts.get() >= maxProducts) {
+                break;
+            }
+            loadedIndex(userId);
+        }
+        log.atInfo().addKeyValue("users", indexes.size()).addKeyValue("products", indexedProducts.get())
+            .addKeyValue("millis", (System.nanoTime() - start) / 1_000_000).log("product search index preloaded");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!enabled || event.type() == ProductChangedEvent.Type.STOCK_CHANGED) {
+            return;
+        }
+        UserIndex index = indexes.get(event.userId());
+        if (index == null) {
+            return;
+        }
+        // Read under the write lock: an index being built holds it, and must not be overwritten by
+        // a document read before the build
+        index.lock.writeLock().lock();
+        try {
+            if (!index.loaded) {
+                return;
+            }
+            int before = index.footprint();
+            if (event.type() == ProductChangedEvent.Type.DELETED) {
+                index.remove(event.productId());
+            } else {
+                readOnly.execute(status -> productRepository.findSearchDocument(event.productId()))
+                        .ifPresentOrElse(index::put, () -> index.remove(event.productId()));
+            }
+            indexedProducts.addAndGet(index.footprint() - before);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    private UserIndex loadedIndex(Long userId) {
+        UserIndex index = indexes.computeIfAbsent(userId, id -> new UserIndex());
+        if (index.loaded) {
+            return index;
+        }
+        index.lock.writeLock().lock();
+        try {
+            if (!index.loaded && !index.oversized) {
+                long start = System.nanoTime();
+                readOnly.executeWithoutResult(status -> {
+                    try (Stream<ProductSearchDocument> documents = productRepository.streamSearchDocumentsByUserId(userId)) {
+                        documents.forEach(index::put);
+                    }
+                });
+                index.lastUsed = System.nanoTime();
+                // Invalidated while building: answer this search from it, but do not keep it
+                if (indexes.get(userId) != index) {
+                    index.loaded = true;
+                    return index;
+                }
+                index.loaded = true;
+                indexedProducts.addAndGet(index.footprint());
+                log.atDebug().addKeyValue("userId", userId).addKeyValue("products", index.size())
+                    .addKeyValue("millis", (System.nanoTime() - start) / 1_000_000).log("product search index built");
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        evictBeyondBudget(userId, index);
+        return index.loaded ? index : null;
+    }
+
+    private void evictBeyondBudget(Long userId, UserIndex current) {
+        synchronized (evictionLock) {
+            while (indexedProducts.get() > maxProducts) {
+                Long coldest = null;
+                long coldestUse = Long.MAX_VALUE;
+                for (Map.Entry<Long, UserIndex> entry : indexes.entrySet()) {
+                    UserIndex index = entry.getValue();
+                    if (index != current && index.loaded && index.lastUsed < coldestUse) {
+                        coldest = entry.getKey();
+                        coldestUse = index.lastUsed;
+                    }
+                }
+                if (coldest == null) {
+                    // This user alone exceeds the budget; remember that instead of rebuilding per search
+                    current.lock.writeLock().lock();
+                    try {
+                        if (current.loaded) {
+                            current.loaded = false;
+                            indexedProducts.addAndGet(-current.footprint());
+                        }
+                        current.oversized = true;
+                        current.clear();
+                    } finally {
+                        current.lock.writeLock().unlock();
+                    }
+                    log.atInfo().addKeyValue("userId", userId).addKeyValue("maxProducts", maxProducts)
+                        .log("product search index budget exceeded by one user; searching the database");
+                    return;
+                }
+                invalidate(coldest);
+            }
+        }
+    }
+
+    private static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query != null) {
+            for (String term : normalize(query).split("\\s+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    private static int score(String term, String sku, String name, String description) {
+        int score = 0;
+        int at;
+        if (sku.equals(term)) {
+            score = SKU_EXACT;
+        } else if (sku.startsWith(term)) {
+            score = SKU_PREFIX;
+        } else if (sku.contains(term)) {
+            score = SKU_CONTAINS;
+        }
+        if (score < NAME_PREFIX && (at = name.indexOf(term)) >= 0) {
+            if (at == 0) {
+                score = NAME_PREFIX;
+            } else if (score < NAME_WORD && wordStart(name, term, at)) {
+                score = NAME_WORD;
+            } else {
+                score = Math.max(score, NAME_CONTAINS);
+            }
+        }
+        if (score == 0 && description.contains(term)) {
+            score = DESCRIPTION_CONTAINS;
+        }
+        return score;
+    }
+
+    private static boolean wordStart(String name, String term, int from) {
+        for (int at = from; at > 0; at = name.indexOf(term, at + 1)) {
+            if (!Character.isLetterOrDigit(name.charAt(at - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One page of ranked product ids; {@code nextCursor} is null on the last page.
+     */
+    public record Hits(List<Long> productIds, String nextCursor) {
+    }
+
+    private record Hit(int score, String name, long productId) {
+    }
+
+    /**
+     * Position after the last hit of a page, in ranking order. Pages stay consistent while products
+     * change between requests.
+     */
+    private record SearchCursor(int score, long productId, String name) {
+
+        String encode() {
+            String raw = score + "|" + productId + "|" + name;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        boolean isBefore(Hit hit) {
+            return RANKING.compare(new Hit(score, name, productId), hit) < 0;
+        }
+
+        static SearchCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                // The name goes last: it may contain the separator
+                String[] parts = raw.split("\\|", 3);
+                return new SearchCursor(Integer.parseInt(parts[0]), Long.parseLong(parts[1]), parts[2]);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+
+    /**
+     * One user's documents and trigram postings. Documents are numbered densely in the order they
+     * are first indexed; a product keeps its number across edits, and postings hold numbers in
+     * ascending order. A removed product leaves an empty slot until more than
+     * {@link #MAX_EMPTY_SHARE} of the slots are empty; the index is then renumbered. Guarded by
+     * {@code lock}.
+     */
+    private static final class UserIndex {
+
+        static final double MAX_EMPTY_SHARE = 0.25;
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile boolean loaded;
+        volatile boolean oversized;
+        volatile long lastUsed;
+
+        private final Map<Long, Integer> documentNumbers = new HashMap<>();
+        private final List<Document> documents = new ArrayList<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        int size() {
+            return documentNumbers.size();
+        }
+
+        /**
+         * Document slots in use, empty ones included: what the index holds against the budget.
+         */
+        int footprint() {
+            return documents.size();
+        }
+
+        void clear() {
+            documentNumbers.clear();
+            documents.clear();
+            postings.clear();
+        }
+
+        void put(ProductSearchDocument source) {
+            Document document = new Document(source.productId(),
+                normalize(source.sku()), normalize(source.name()), normalize(source.description()));
+            Integer number = documentNumbers.get(source.productId());
+            if (number == null) {
+                number = documents.size();
+                documents.add(null);
+                documentNumbers.put(source.productId(), number);
+            } else {
+                unpost(documents.get(number), number);
+            }
+            documents.set(number, document);
+            post(document, number);
+        }
+
+        void remove(Long productId) {
+            Integer number = documentNumbers.remove(productId);
+            if (number != null) {
+                unpost(documents.get(number), number);
+                documents.set(number, null);
+                if (documents.size() - documentNumbers.size() > documents.size() * MAX_EMPTY_SHARE) {
+                    compact();
+                }
+            }
+        }
+
+        /**
+         * Renumbers the remaining documents densely, keeping their order, and rebuilds the postings.
+         */
+        private void compact() {
+            List<Document> remaining = new ArrayList<>(documentNumbers.size());
+            for (Document document : documents) {
+                if (document != null) {
+                    remaining.add(document);
+                }
+            }
+            clear();
+            for (Document document : remaining) {
+                int number = documents.size();
+                documents.add(document);
+                documentNumbers.put(document.productId(), number);
+                post(document, number);
+            }
+        }
+
+        private void post(Document document, int number) {
+            for (String field : document.fields()) {
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    postings.computeIfAbsent(trigram(field, i), key -> new Postings()).add(number);
+                }
+            }
+        }
+
+        private void unpost(Document document, int number) {
+            for (String field : document.fields()) {
+                for (int i = 0; i + 3 <= field.length(); i++) {
+                    long key = trigram(field, i);
+                    Postings list = postings.get(key);
+                    if (list != null && list.remove(number) && list.size == 0) {
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+
+        Hits search(List<String> terms, SearchCursor after, int limit) {
+            if (terms.isEmpty()) {
+                return new Hits(List.of(), null);
+            }
+            int[] candidates = candidates(terms);
+            // Keeps the best limit + 1 hits, worst first, to tell whether another page follows
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            int count = candidates != null ? candidates.length : documents.size();
+            for (int i = 0; i < count; i++) {
+                Document document = documents.get(candidates != null ? candidates[i] : i);
+                if (document == null) {
+                    continue;
+                }
+                int score = 0;
+                for (String term : terms) {
+                    int termScore = score(term, document.sku(), document.normalizedName(), document.description());
+                    if (termScore == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += termScore;
+                }
+                if (score == 0) {
+                    continue;
+                }
+                Hit hit = new Hit(score, document.normalizedName(), document.productId());
+                if (after != null && !after.isBefore(hit)) {
+                    continue;
+                }
+                best.add(hit);
+                if (best.size() > limit + 1) {
+                    best.poll();
+                }
+            }
+            List<Hit> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            String nextCursor = null;
+            if (ranked.size() > limit) {
+                ranked = ranked.subList(0, limit);
+                Hit last = ranked.get(limit - 1);
+                nextCursor = new SearchCursor(last.score(), last.productId(), last.name()).encode();
+            }
+            return new Hits(ranked.stream().map(Hit::productId).toList(), nextCursor);
+        }
+
+        /**
+         * Document numbers holding every trigram of every term of three or more characters, or null
+         * when no term is that long and every document has to be checked.
+         */
+        private int[] candidates(List<String> terms) {
+            List<Postings> lists = new ArrayList<>();
+            for (String term : terms) {
+                for (int i = 0; i + 3 <= term.length(); i++) {
+                    Postings list = postings.get(trigram(term, i));
+                    if (list == null) {
+                        return new int[0];
+                    }
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return null;
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int[] result = Arrays.copyOf(lists.get(0).numbers, lists.get(0).size);
+            int size = result.length;
+            for (int l = 1; l < lists.size() && size > 0; l++) {
+                size = lists.get(l).retainIn(result, size);
+            }
+            return Arrays.copyOf(result, size);
+        }
+    }
+
+    private record Document(long productId, String sku, String normalizedName, String description) {
+
+        String[] fields() {
+            return new String[]{sku, normalizedName, description};
+        }
+    }
+
+    /**
+     * Ascending document numbers holding one trigram.
+     */
+    private static final class Postings {
+
+        int[] numbers = new int[2];
+        int size;
+
+        void add(int number) {
+            // Bulk builds append in ascending order
+            if (size > 0 && numbers[size - 1] == number) {
+                return;
+            }
+            int at = size == 0 || numbers[size - 1] < number ? -(size + 1) : Arrays.binarySearch(numbers, 0, size, number);
+            if (at >= 0) {
+                return;
+            }
+            int insert = -(at + 1);
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            System.arraycopy(numbers, insert, numbers, insert + 1, size - insert);
+            numbers[insert] = number;
+            size++;
+        }
+
+        boolean remove(int number) {
+            int at = Arrays.binarySearch(numbers, 0, size, number);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(numbers, at + 1, numbers, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps the first {@code size} entries of the ascending {@code target} that are also in this
+         * list, compacted to the front, and returns how many remain.
+         */
+        int retainIn(int[] target, int size) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < size; i++) {
+                int at = Arrays.binarySearch(numbers, from, this.size, target[i]);
+                if (at >= 0) {
+                    target[kept++] = target[i];
+                    from = at + 1;
+                } else {
+                    from = -(at + 1);
+                }
+            }
+            return kept;
+        }
+    }
+}
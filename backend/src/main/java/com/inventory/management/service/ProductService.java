@@ -1,28 +1,51 @@
 package com.inventory.management.service;
 
+import com.inventory.management.dto.ProductCursor;
+import com.inventory.management.dto.ProductFilter;
+import com.inventory.management.dto.ProductPage;
+import com.inventory.management.dto.ProductSort;
+import com.inventory.management.dto.ProductView;
 import com.inventory.management.model.InventoryHistory;
 import com.inventory.management.model.Product;
 import com.inventory.management.model.User;
 import com.inventory.management.repository.InventoryHistoryRepository;
+import com.inventory.management.repository.ProductCatalogRepository;
 import com.inventory.management.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final ProductCatalogRepository productCatalogRepository;
     private final InventoryHistoryRepository inventoryHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryOutbox inventoryOutbox;
+    private final ProductSearchIndex productSearchIndex;
     
     @Autowired
-    public ProductService(ProductRepository productRepository, InventoryHistoryRepository inventoryHistoryRepository) {
+    public ProductService(ProductRepository productRepository, ProductCatalogRepository productCatalogRepository,
+                          InventoryHistoryRepository inventoryHistoryRepository,
+                          ApplicationEventPublisher eventPublisher, InventoryOutbox inventoryOutbox,
+                          ProductSearchIndex productSearchIndex) {
         this.productRepository = productRepository;
+        this.productCatalogRepository = productCatalogRepository;
         this.inventoryHistoryRepository = inventoryHistoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.inventoryOutbox = inventoryOutbox;
+        this.productSearchIndex = productSearchIndex;
     }
     
     @Transactional(readOnly = true)
@@ -30,11 +53,6 @@ public class ProductService {
         return productRepository.findAll();
     }
     
-    @Transactional(readOnly = true)
-    public List<Product> getAllProductsByUser(User user) {
-        return productRepository.findByUserOrderByName(user);
-    }
-    
     @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
@@ -68,6 +86,9 @@ public class ProductService {
             "Product created: " + savedProduct.getName()
         );
         inventoryHistoryRepository.save(history);
+        inventoryOutbox.append(history);
+        publish(ProductChangedEvent.Type.CREATED, savedProduct, user);
+        publishStock(StockChangedEvent.Level.of(savedProduct, savedProduct.getQuantity()), user);
         
         return savedProduct;
     }
@@ -88,6 +109,10 @@ public class ProductService {
         product.setDescription(productDetails.getDescription());
         product.setPrice(productDetails.getPrice());
         product.setQuantity(productDetails.getQuantity());
+        // Left as is when the request omits it, so clients that predate the field keep the threshold
+        if (productDetails.getReorderThreshold() != null) {
+            product.setReorderThreshold(productDetails.getReorderThreshold());
+        }
         product.setCategory(productDetails.getCategory());
         
         Product updatedProduct = productRepository.save(product);
@@ -97,6 +122,9 @@ public class ProductService {
             "Product updated: " + updatedProduct.getName()
         );
         inventoryHistoryRepository.save(history);
+        inventoryOutbox.append(history);
+        publish(ProductChangedEvent.Type.UPDATED, updatedProduct, user);
+        publishStock(StockChangedEvent.Level.of(updatedProduct, updatedProduct.getQuantity()), user);
         
         return updatedProduct;
     }
@@ -108,6 +136,9 @@ public class ProductService {
         try {
             inventoryHistoryRepository.deleteByProduct(product);
             productRepository.deleteById(id);
+            inventoryOutbox.appendDeleted(product, user);
+            publish(ProductChangedEvent.Type.DELETED, product, user);
+            publishStock(StockChangedEvent.Level.deleted(product), user);
         } catch (org.springframework.dao.DataIntegrityViolationException e) {
             throw new RuntimeException("Cannot delete product because it has associated orders. Please delete related orders first.");
         } catch (Exception e) {
@@ -135,6 +166,9 @@ public class ProductService {
             "Quantity updated for: " + updatedProduct.getName()
         );
         inventoryHistoryRepository.save(history);
+        inventoryOutbox.append(history);
+        publish(ProductChangedEvent.Type.STOCK_CHANGED, updatedProduct, user);
+        publishStock(StockChangedEvent.Level.of(updatedProduct, newQuantity), user);
         
         return updatedProduct;
     }
@@ -144,23 +178,71 @@ public class ProductService {
         return productRepository.findByNameContainingIgnoreCaseOrderByName(name);
     }
     
-    @Transactional(readOnly = true)
-    public List<Product> searchProductsByUser(String name, User user) {
-        return productRepository.findByNameContainingIgnoreCaseAndUserOrderByName(name, user);
-    }
-    
     @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(String category) {
         return productRepository.findByCategoryOrderByName(category);
     }
     
+    /**
+     * The user's products with the given ids, in the order of {@code ids}. Ids that are not the
+     * user's, or no longer exist, are skipped.
+     */
     @Transactional(readOnly = true)
-    public List<Product> getProductsByCategoryAndUser(String category, User user) {
-        return productRepository.findByCategoryAndUserOrderByName(category, user);
+    public List<Product> getProductsByIds(List<Long> ids, User user) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findByIdInAndUser(ids, user).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(products::get).filter(Objects::nonNull).toList();
     }
     
+    /**
+     * One keyset page of the user's products matching {@code filter}, in {@code sort} order. A further
+     * row is read to tell whether another page exists.
+     */
     @Transactional(readOnly = true)
-    public List<Product> getLowStockProducts(User user, Integer threshold) {
-        return productRepository.findLowStockProductsByUser(user, threshold != null ? threshold : 10);
+    public ProductPage getProductPage(User user, ProductFilter filter, ProductSort sort, boolean descending,
+                                      ProductCursor cursor, int limit) {
+        List<ProductView> rows = productCatalogRepository.findPage(user, filter, sort, descending, cursor, limit + 1);
+        if (rows.size() <= limit) {
+            return new ProductPage(rows, null);
+        }
+        List<ProductView> page = rows.subList(0, limit);
+        ProductView last = page.get(limit - 1);
+        return new ProductPage(page, new ProductCursor(sort, descending, sort.valueOf(last), last.id()).encode());
+    }
+    
+    /**
+     * The user's products matching every term of {@code text} in SKU, name or description, best
+     * matches first, from {@link ProductSearchIndex}. Without the index (disabled, or the user has
+     * more products than it holds) this is the name search in name order, whose cursors are not
+     * interchangeable with the index's.
+     */
+    // Not in a transaction: building a user's index reads in its own, and the page is loaded by id
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductPage searchProducts(User user, String text, String cursor, int limit) {
+        Optional<ProductSearchIndex.Hits> hits = productSearchIndex.search(user.getId(), text, cursor, limit);
+        if (hits.isEmpty()) {
+            return getProductPage(user, ProductFilter.nameContains(text), ProductSort.NAME, false,
+                ProductCursor.decode(cursor, ProductSort.NAME, false), limit);
+        }
+        List<Long> ids = hits.get().productIds();
+        if (ids.isEmpty()) {
+            return new ProductPage(List.of(), null);
+        }
+        Map<Long, ProductView> views = productRepository.findViewsByIdInAndUser(ids, user).stream()
+                .collect(Collectors.toMap(ProductView::id, Function.identity()));
+        // In ranking order; a product deleted since the search is left out
+        List<ProductView> products = ids.stream().map(views::get).filter(Objects::nonNull).toList();
+        return new ProductPage(products, hits.get().nextCursor());
+    }
+    
+    private void publish(ProductChangedEvent.Type type, Product product, User user) {
+        eventPublisher.publishEvent(new ProductChangedEvent(type, product.getId(), user.getId()));
+    }
+    
+    private void publishStock(StockChangedEvent.Level level, User user) {
+        eventPublisher.publishEvent(new StockChangedEvent(user.getId(), List.of(level)));
     }
 }
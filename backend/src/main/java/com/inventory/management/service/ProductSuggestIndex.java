@@ -0,0 +1,474 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.ProductSuggestion;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Prefix suggestions over product names and SKUs for {@code /api/products/suggest}. Each user's
+ * lower-cased names and SKUs are held in a radix trie: edges carry whole runs of characters, children
+ * are kept in small sorted arrays and each key ends in a plain array of product ids, so a product
+ * costs little beyond its two keys. A lookup walks down the prefix and then visits keys in order,
+ * stopping after {@code limit} products; its cost does not depend on the size of the catalog.
+ * <p>
+ * A user's trie is built from the database on their first lookup and kept current from
+ * {@link ProductChangedEvent}s after each commit. Tries are kept up to {@code max-keys} keys in
+ * total: beyond that, and for users idle longer than {@code idle-minutes}, the least recently used
+ * are dropped and rebuilt when next needed. A user with more keys than the whole budget is answered
+ * by a prefix query on the database instead.
+ */
+@Service
+public class ProductSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    private static final long[] NO_IDS = new long[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final long maxKeys;
+    private final long idleNanos;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnly;
+    private final Map<Long, UserTrie> tries = new ConcurrentHashMap<>();
+    private final AtomicLong indexedKeys = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final Timer lookups;
+
+    public ProductSuggestIndex(@Value("${app.products.suggest.max-keys:2000000}") long maxKeys,
+                               @Value("${app.products.suggest.idle-minutes:30}") long idleMinutes,
+                               ProductRepository productRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.maxKeys = maxKeys;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        this.productRepository = productRepository;
+        // Also used after a commit, where the finished transaction cannot be joined
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setReadOnly(true);
+
+        this.lookups = Timer.builder("products.suggest.lookups").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        Gauge.builder("products.suggest.keys", indexedKeys, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("products.suggest.users", tries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Up to {@code limit} of the user's products whose name or SKU starts with {@code prefix}, ignoring
+     * case, in key order.
+     */
+    public List<ProductSuggestion> suggest(User user, String prefix, int limit) {
+        long start = System.nanoTime();
+        String key = normalize(prefix);
+        try {
+            if (key.isEmpty()) {
+                return List.of();
+            }
+            UserTrie trie = loadedTrie(user.getId());
+            if (trie == null) {
+                return readOnly.execute(status ->
+                    productRepository.findSuggestions(user, escapeLike(key), PageRequest.of(0, limit)));
+            }
+            trie.lastUsed = System.nanoTime();
+            trie.lock.readLock().lock();
+            try {
+                return trie.suggest(key, limit);
+            } finally {
+                trie.lock.readLock().unlock();
+            }
+        } finally {
+            lookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.STOCK_CHANGED) {
+            return;
+        }
+        UserTrie trie = tries.get(event.userId());
+        if (trie == null) {
+            return;
+        }
+        // Read under the write lock: a trie being built holds it, and must not be overwritten by a
+        // row read before the build
+        trie.lock.writeLock().lock();
+        try {
+            if (!trie.loaded) {
+                return;
+            }
+            int before = trie.keys;
+            if (event.type() == ProductChangedEvent.Type.DELETED) {
+                trie.remove(event.productId());
+            } else {
+                readOnly.execute(status -> productRepository.findSuggestion(event.productId()))
+                        .ifPresentOrElse(trie::put, () -> trie.remove(event.productId()));
+            }
+            indexedKeys.addAndGet(trie.keys - before);
+        } finally {
+            trie.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops tries of users who have not asked for suggestions in {@code idle-minutes}.
+     */
+    @Scheduled(fixedDelayString = "${app.products.suggest.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Map.Entry<Long, UserTrie> entry : tries.entrySet()) {
+            UserTrie trie = entry.getValue();
+            // Users found too large are tried again too, in case they have shrunk
+            if ((trie.loaded || trie.oversized) && now - trie.lastUsed > idleNanos) {
+                evict(entry.getKey());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.atDebug().addKeyValue("users", evicted).addKeyValue("remaining", tries.size()).log("idle suggestion tries dropped");
+        }
+    }
+
+    private void evict(Long userId) {
+        UserTrie trie = tries.remove(userId);
+        if (trie == null) {
+            return;
+        }
+        // Lookups already holding the trie finish on it; updates see it unloaded and skip it
+        trie.lock.writeLock().lock();
+        try {
+            if (trie.loaded) {
+                trie.loaded = false;
+                indexedKeys.addAndGet(-trie.keys);
+            }
+        } finally {
+            trie.lock.writeLock().unlock();
+        }
+    }
+
+    private UserTrie loadedTrie(Long userId) {
+        UserTrie trie = tries.computeIfAbsent(userId, id -> new UserTrie());
+        if (trie.loaded) {
+            return trie;
+        }
+        trie.lock.writeLock().lock();
+        try {
+            if (!trie.loaded && !trie.oversized) {
+                long start = System.nanoTime();
+                readOnly.executeWithoutResult(status -> {
+                    try (Stream<ProductSuggestion> products = productRepository.streamSuggestionsByUserId(userId)) {
+                        products.forEach(trie::put);
+                    }
+                });
+                trie.lastUsed = System.nanoTime();
+                trie.loaded = true;
+                // Evicted while building: answer this lookup from it, but do not keep it
+                if (tries.get(userId) != trie) {
+                    return trie;
+                }
+                indexedKeys.addAndGet(trie.keys);
+                log.atDebug().addKeyValue("userId", userId).addKeyValue("keys", trie.keys)
+                    .addKeyValue("millis", (System.nanoTime() - start) / 1_000_000).log("suggestion trie built");
+            }
+        } finally {
+            trie.lock.writeLock().unlock();
+        }
+        evictBeyondBudget(userId, trie);
+        return trie.loaded ? trie : null;
+    }
+
+    private void evictBeyondBudget(Long userId, UserTrie current) {
+        synchronized (evictionLock) {
+            while (indexedKeys.get() > maxKeys) {
+                Long coldest = null;
+                long coldestUse = Long.MAX_VALUE;
+                for (Map.Entry<Long, UserTrie> entry : tries.entrySet()) {
+                    UserTrie trie = entry.getValue();
+                    if (trie != current && trie.loaded && trie.lastUsed < coldestUse) {
+                        coldest = entry.getKey();
+                        coldestUse = trie.lastUsed;
+                    }
+                }
+                if (coldest == null) {
+                    // This user alone exceeds the budget; remember that instead of rebuilding per lookup
+                    current.lock.writeLock().lock();
+                    try {
+                        if (current.loaded) {
+                            current.loaded = false;
+                            indexedKeys.addAndGet(-current.keys);
+                        }
+                        current.oversized = true;
+                        current.clear();
+                    } finally {
+                        current.lock.writeLock().unlock();
+                    }
+                    log.atInfo().addKeyValue("userId", userId).addKeyValue("maxKeys", maxKeys)
+                        .log("suggestion budget exceeded by one user; suggesting from the database");
+                    return;
+                }
+                evict(coldest);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static int commonPrefix(String a, int from, String b) {
+        int length = Math.min(a.length() - from, b.length());
+        int i = 0;
+        while (i < length && a.charAt(from + i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * One user's radix trie and the products it refers to. Guarded by {@code lock}.
+     */
+    static final class UserTrie {
+
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile boolean loaded;
+        volatile boolean oversized;
+        volatile long lastUsed;
+        int keys;
+
+        private final Node root = new Node("");
+        private final Map<Long, ProductSuggestion> products = new HashMap<>();
+
+        void clear() {
+            root.children = NO_CHILDREN;
+            root.productIds = NO_IDS;
+            products.clear();
+            keys = 0;
+        }
+
+        void put(ProductSuggestion product) {
+            remove(product.id());
+            products.put(product.id(), product);
+            for (String key : keys(product)) {
+                keys += insert(root, key, 0, product.id());
+            }
+        }
+
+        void remove(Long productId) {
+            ProductSuggestion product = products.remove(productId);
+            if (product != null) {
+                for (String key : keys(product)) {
+                    keys -= delete(root, key, 0, productId);
+                }
+            }
+        }
+
+        List<ProductSuggestion> suggest(String prefix, int limit) {
+            Node node = root;
+            int at = 0;
+            while (at < prefix.length()) {
+                Node child = node.child(prefix.charAt(at));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonPrefix(prefix, at, child.label);
+                if (common < child.label.length() && at + common < prefix.length()) {
+                    return List.of();
+                }
+                at += common;
+                node = child;
+            }
+            Set<Long> ids = new LinkedHashSet<>();
+            collect(node, ids, limit);
+            return ids.stream().map(products::get).toList();
+        }
+
+        // Pre-order: a key comes before the longer keys it is a prefix of
+        private static boolean collect(Node node, Set<Long> ids, int limit) {
+            for (long id : node.productIds) {
+                ids.add(id);
+                if (ids.size() >= limit) {
+                    return true;
+                }
+            }
+            for (Node child : node.children) {
+                if (collect(child, ids, limit)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Set<String> keys(ProductSuggestion product) {
+            Set<String> keys = new LinkedHashSet<>(2);
+            for (String key : new String[]{normalize(product.name()), normalize(product.sku())}) {
+                if (!key.isEmpty()) {
+                    keys.add(key);
+                }
+            }
+            return keys;
+        }
+
+        /**
+         * Adds the id under {@code key[from..]} below {@code node}; returns 1 if the key is new.
+         */
+        private static int insert(Node node, String key, int from, long productId) {
+            if (from == key.length()) {
+                boolean newKey = node.productIds.length == 0;
+                node.addId(productId);
+                return newKey ? 1 : 0;
+            }
+            Node child = node.child(key.charAt(from));
+            if (child == null) {
+                Node leaf = new Node(key.substring(from));
+                leaf.addId(productId);
+                node.addChild(leaf);
+                return 1;
+            }
+            int common = commonPrefix(key, from, child.label);
+            if (common < child.label.length()) {
+                // Split the edge where the key leaves it
+                // Replaced first: the parent finds the child to replace by its label, still unchanged
+                Node split = new Node(child.label.substring(0, common));
+                node.replaceChild(split);
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                child = split;
+            }
+            return insert(child, key, from + common, productId);
+        }
+
+        /**
+         * Removes the id under {@code key[from..]} below {@code node}, pruning and merging emptied
+         * nodes; returns 1 if the key is gone.
+         */
+        private static int delete(Node node, String key, int from, long productId) {
+            if (from == key.length()) {
+                return node.removeId(productId) && node.productIds.length == 0 ? 1 : 0;
+            }
+            Node child = node.child(key.charAt(from));
+            if (child == null || !key.startsWith(child.label, from)) {
+                return 0;
+            }
+            int removed = delete(child, key, from + child.label.length(), productId);
+            if (child.productIds.length == 0) {
+                if (child.children.length == 0) {
+                    node.removeChild(child);
+                } else if (child.children.length == 1) {
+                    Node only = child.children[0];
+                    only.label = child.label + only.label;
+                    node.replaceChild(only);
+                }
+            }
+            return removed;
+        }
+    }
+
+    private static final class Node {
+
+        String label;
+        // Sorted by the first character of their labels, which differ
+        Node[] children = NO_CHILDREN;
+        long[] productIds = NO_IDS;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int at = find(first);
+            return at >= 0 ? children[at] : null;
+        }
+
+        void addChild(Node child) {
+            int insert = -(find(child.label.charAt(0)) + 1);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, insert);
+            grown[insert] = child;
+            System.arraycopy(children, insert, grown, insert + 1, children.length - insert);
+            children = grown;
+        }
+
+        void replaceChild(Node child) {
+            children[find(child.label.charAt(0))] = child;
+        }
+
+        void removeChild(Node child) {
+            int at = find(child.label.charAt(0));
+            Node[] shrunk = new Node[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, at);
+            System.arraycopy(children, at + 1, shrunk, at, children.length - at - 1);
+            children = shrunk.length == 0 ? NO_CHILDREN : shrunk;
+        }
+
+        void addId(long productId) {
+            for (long id : productIds) {
+                if (id == productId) {
+                    return;
+                }
+            }
+            productIds = Arrays.copyOf(productIds, productIds.length + 1);
+            productIds[productIds.length - 1] = productId;
+        }
+
+        boolean removeId(long productId) {
+            for (int i = 0; i < productIds.length; i++) {
+                if (productIds[i] == productId) {
+                    long[] shrunk = new long[productIds.length - 1];
+                    System.arraycopy(productIds, 0, shrunk, 0, i);
+                    System.arraycopy(productIds, i + 1, shrunk, i, productIds.length - i - 1);
+                    productIds = shrunk.length == 0 ? NO_IDS : shrunk;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int find(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.inventory.management.service;
+
+import com.inventory.management.model.Product;
+
+import java.util.List;
+
+/**
+ * Published by {@link ProductService} and {@link OrderService} with the quantities their change left
+ * the products at, so that listeners keeping stock views need not read them back. Listeners react
+ * after the transaction commits.
+ */
+public record StockChangedEvent(Long userId, List<Level> levels) {
+
+    /**
+     * A product's stock after the change; {@code quantity} is null when the product was deleted.
+     */
+    public record Level(Long productId, String sku, String name, Integer quantity, Integer reorderThreshold) {
+
+        public static Level of(Product product, Integer quantity) {
+            return new Level(product.getId(), product.getSku(), product.getName(), quantity, product.getReorderThreshold());
+        }
+
+        public static Level deleted(Product product) {
+            return of(product, null);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.ProductStockSnapshot;
+import com.inventory.management.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-process admission filter for order stock ({@code app.orders.reservation-ledger.enabled}).
+ * The available quantity of each ordered product is mirrored in memory, loaded lazily from
+ * {@code products.quantity} (a restart simply rebuilds it) and guarded by one of a fixed set of lock
+ * stripes. Order lines are admitted or rejected against the mirror before any database transaction.
+ * Admitted quantities for the same product are then written by whichever request reaches the product
+ * first, as one conditional update covering every reservation queued behind it.
+ * <p>
+ * The database stays authoritative: if that update finds less stock than the ledger believed (another
+ * replica, a manual edit), the queued reservations are applied one by one and the entry is reloaded.
+ */
+@Service
+public class StockReservationLedger {
+    
+    private static final Logger log = LoggerFactory.getLogger(StockReservationLedger.class);
+    
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Counter admittedLines;
+    private final Counter rejectedLines;
+    private final Counter contention;
+    private final Counter conflicts;
+    private final DistributionSummary batchSize;
+    
+    public StockReservationLedger(@Value("${app.orders.reservation-ledger.enabled:false}") boolean enabled,
+                                  @Value("${app.orders.reservation-ledger.stripes:64}") int stripes,
+                                  ProductRepository productRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.stripes = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.productRepository = productRepository;
+        // Grouped updates commit on their own, independently of any one order's transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        
+        this.admittedLines = Counter.builder("stock.ledger.lines").tag("result", "admitted").register(meterRegistry);
+        this.rejectedLines = Counter.builder("stock.ledger.lines").tag("result", "rejected").register(meterRegistry);
+        this.contention = Counter.builder("stock.ledger.contention").register(meterRegistry);
+        this.conflicts = Counter.builder("stock.ledger.conflicts").register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("stock.ledger.batch.size").register(meterRegistry);
+        Gauge.builder("stock.ledger.products", slots, Map::size).register(meterRegistry);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Reserves the given quantity of every product, or none of them. Quantities must be keyed in
+     * product id order so that stripes are always taken in the same order. Returns {@code null} if a
+     * product does not exist or belongs to another user, leaving the caller to report it.
+     *
+     * @throws InsufficientStockException listing every product that could not be reserved
+     */
+    public Reservation reserve(Map<Long, Integer> quantities, Long userId) {
+        // Phase 1: admit against the in-memory mirror
+        Map<Slot, Integer> admitted = new LinkedHashMap<>();
+        List<InsufficientStockException.StockShortfall> shortfalls = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Slot slot = slot(entry.getKey());
+            if (slot == null || !slot.userId.equals(userId)) {
+                restore(admitted);
+                return null;
+            }
+            int quantity = entry.getValue();
+            ReentrantLock lock = lock(slot);
+            try {
+                if (slot.available >= quantity) {
+                    slot.available -= quantity;
+                    slot.admittedLines.increment();
+                    admitted.put(slot, quantity);
+                } else {
+                    slot.rejectedLines.increment();
+                    shortfalls.add(new InsufficientStockException.StockShortfall(
+                        slot.productId, slot.name, quantity, slot.available));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (!shortfalls.isEmpty()) {
+            restore(admitted);
+            rejectedLines.increment(shortfalls.size());
+            throw new InsufficientStockException(shortfalls);
+        }
+        admittedLines.increment(admitted.size());
+        
+        // Phase 2: write to the database, grouped with concurrent reservations of the same product
+        Map<Long, Integer> applied = new LinkedHashMap<>();
+        Map<Long, Integer> stockAfter = new HashMap<>();
+        for (Map.Entry<Slot, Integer> entry : admitted.entrySet()) {
+            Slot slot = entry.getKey();
+            Integer after;
+            try {
+                after = apply(slot, entry.getValue());
+            } catch (RuntimeException e) {
+                // The failed update wrote nothing for this product, so its admission is given back too
+                abandon(admitted, applied, null);
+                throw e;
+            }
+            if (after == null) {
+                // The slot was dropped as out of step with the database; nothing to give back to it
+                abandon(admitted, applied, slot);
+                
+                Integer available = loadSnapshot(slot.productId)
+                        .map(ProductStockSnapshot::quantity)
+                        .orElse(0);
+                throw new InsufficientStockException(List.of(new InsufficientStockException.StockShortfall(
+                    slot.productId, slot.name, entry.getValue(), available)));
+            }
+            applied.put(slot.productId, entry.getValue());
+            stockAfter.put(slot.productId, after);
+        }
+        return new Reservation(applied, stockAfter);
+    }
+    
+    /**
+     * Gives reserved stock back after the order it was taken for failed. The entries are dropped
+     * and reloaded on next use rather than adjusted, since a reload may already include the release.
+     */
+    public void release(Reservation reservation) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, Integer> entry : reservation.quantities().entrySet()) {
+            transactionTemplate.executeWithoutResult(status ->
+                productRepository.incrementStockById(entry.getKey(), entry.getValue(), now));
+            slots.remove(entry.getKey());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        // Quantity may have been set directly; reload from the database on next use
+        slots.remove(event.productId());
+    }
+    
+    /**
+     * Per-product contention and batching counters, most contended first.
+     */
+    public List<ProductStats> getStats() {
+        return slots.values().stream()
+                .map(slot -> new ProductStats(slot.productId, slot.sku, slot.available,
+                    slot.admittedLines.sum(), slot.rejectedLines.sum(), slot.contended.sum(),
+                    slot.flushes.sum(), slot.flushedLines.sum(), slot.conflicts.sum()))
+                .sorted(Comparator.comparingLong(ProductStats::contended).reversed()
+                    .thenComparing(Comparator.comparingLong(ProductStats::admittedLines).reversed()))
+                .collect(Collectors.toList());
+    }
+    
+    private Slot slot(Long productId) {
+        Slot slot = slots.get(productId);
+        if (slot != null) {
+            return slot;
+        }
+        return loadSnapshot(productId)
+                .map(snapshot -> slots.computeIfAbsent(productId, id -> new Slot(snapshot)))
+                .orElse(null);
+    }
+    
+    // In a transaction of its own: a read in the caller's non-transactional scope would keep the
+    // connection bound to that scope while the caller waits for a grouped update
+    private Optional<ProductStockSnapshot> loadSnapshot(Long productId) {
+        return transactionTemplate.execute(status -> productRepository.findStockSnapshot(productId));
+    }
+    
+    private ReentrantLock lock(Slot slot) {
+        ReentrantLock lock = stripes[Math.floorMod(slot.productId.hashCode(), stripes.length)];
+        if (!lock.tryLock()) {
+            slot.contended.increment();
+            contention.increment();
+            lock.lock();
+        }
+        return lock;
+    }
+    
+    // Undoes a reservation that failed part way: admitted but unwritten quantities go back to their
+    // slots, written ones back to the database
+    private void abandon(Map<Slot, Integer> admitted, Map<Long, Integer> applied, Slot dropped) {
+        Map<Slot, Integer> remaining = new LinkedHashMap<>(admitted);
+        remaining.keySet().removeIf(s -> applied.containsKey(s.productId) || s == dropped);
+        restore(remaining);
+        release(new Reservation(applied, Map.of()));
+    }
+    
+    private void restore(Map<Slot, Integer> admitted) {
+        for (Map.Entry<Slot, Integer> entry : admitted.entrySet()) {
+            ReentrantLock lock = lock(entry.getKey());
+            try {
+                entry.getKey().available += entry.getValue();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Queues the quantity for the product and waits until it has been written. The first request
+     * to find no write in progress becomes the leader and writes everything queued so far in one
+     * update; when it is done it hands leadership to the oldest request that queued meanwhile.
+     * Returns the product's stock right after this quantity was taken, or {@code null} if the
+     * database did not hold enough.
+     */
+    private Integer apply(Slot slot, int quantity) {
+        Ticket ticket = new Ticket(quantity);
+        boolean leader;
+        ReentrantLock lock = lock(slot);
+        try {
+            slot.pending.add(ticket);
+            leader = !slot.flushing;
+            slot.flushing = true;
+        } finally {
+            lock.unlock();
+        }
+        
+        if (!leader) {
+            CompletableFuture.anyOf(ticket.result, ticket.promoted).join();
+        }
+        if (!ticket.result.isDone()) {
+            flush(slot);
+        }
+        try {
+            return ticket.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+    
+    private void flush(Slot slot) {
+        List<Ticket> batch;
+        ReentrantLock lock = lock(slot);
+        try {
+            batch = new ArrayList<>(slot.pending);
+            slot.pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        
+        try {
+            applyBatch(slot, batch);
+        } catch (RuntimeException e) {
+            batch.forEach(ticket -> ticket.result.completeExceptionally(e));
+        } finally {
+            lock = lock(slot);
+            try {
+                if (slot.pending.isEmpty()) {
+                    slot.flushing = false;
+                } else {
+                    slot.pending.get(0).promoted.complete(null);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+    
+    private void applyBatch(Slot slot, List<Ticket> batch) {
+        int total = batch.stream().mapToInt(Ticket::quantity).sum();
+        LocalDateTime now = LocalDateTime.now();
+        Integer remaining = transactionTemplate.execute(status -> decrementAndRead(slot.productId, total, now));
+        if (remaining != null) {
+            slot.flushes.increment();
+            slot.flushedLines.add(batch.size());
+            batchSize.record(batch.size());
+            // Taken in queue order: each ticket's stock is what the tickets after it left
+            int after = remaining + total;
+            for (Ticket ticket : batch) {
+                after -= ticket.quantity();
+                ticket.result.complete(after);
+            }
+            return;
+        }
+        
+        // The database holds less than the ledger believed; fall back to one update per reservation
+        slot.conflicts.increment();
+        conflicts.increment();
+        log.atDebug().addKeyValue("productId", slot.productId).addKeyValue("batch", batch.size())
+            .log("stock ledger out of step with database");
+        for (Ticket ticket : batch) {
+            ticket.result.complete(transactionTemplate.execute(status -> decrementAndRead(slot.productId, ticket.quantity(), now)));
+        }
+        slots.remove(slot.productId, slot);
+    }
+    
+    // The stock left after the decrement, or null if there was not enough. Read in the updating
+    // transaction, whose row lock keeps other writers from changing it in between.
+    private Integer decrementAndRead(Long productId, int quantity, LocalDateTime now) {
+        if (productRepository.decrementStockById(productId, quantity, now) == 0) {
+            return null;
+        }
+        return productRepository.findStockLevels(List.of(productId)).get(0).quantity();
+    }
+    
+    /**
+     * Stock taken from the database for one order, by product id, and each product's stock right
+     * after it was taken.
+     */
+    public record Reservation(Map<Long, Integer> quantities, Map<Long, Integer> stockAfter) {
+    }
+    
+    public record ProductStats(Long productId, String sku, int available, long admittedLines, long rejectedLines,
+                               long contended, long flushes, long flushedLines, long conflicts) {
+    }
+    
+    private static final class Slot {
+        final Long productId;
+        final Long userId;
+        final String sku;
+        final String name;
+        // Guarded by the product's stripe
+        int available;
+        boolean flushing;
+        final List<Ticket> pending = new ArrayList<>();
+        
+        final LongAdder admittedLines = new LongAdder();
+        final LongAdder rejectedLines = new LongAdder();
+        final LongAdder contended = new LongAdder();
+        final LongAdder flushes = new LongAdder();
+        final LongAdder flushedLines = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        
+        Slot(ProductStockSnapshot snapshot) {
+            this.productId = snapshot.productId();
+            this.userId = snapshot.userId();
+            this.sku = snapshot.sku();
+            this.name = snapshot.name();
+            this.available = snapshot.quantity() != null ? snapshot.quantity() : 0;
+        }
+    }
+    
+    private record Ticket(int quantity, CompletableFuture<Integer> result, CompletableFuture<Void> promoted) {
+        Ticket(int quantity) {
+            this(quantity, new CompletableFuture<>(), new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.inventory.management.service;
+
+import com.inventory.management.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Current token version per user, used to revoke stateless tokens. A token is accepted only if
+ * the version it was signed with matches the user's {@code token_version}. Versions are read from
+ * the database at most once per user per {@code ttl-seconds}, not on every request; replicas that
+ * did not perform the revocation pick it up when their entry expires. At most {@code max-size}
+ * users are kept, least recently used evicted first.
+ */
+@Service
+public class TokenVersionRegistry {
+    
+    private final UserRepository userRepository;
+    private final long ttlMillis;
+    private final Map<Long, CachedVersion> versions;
+    
+    @Autowired
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${jwt.token-version.ttl-seconds:60}") long ttlSeconds,
+                                @Value("${jwt.token-version.max-size:100000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.versions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedVersion> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+    
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached;
+        synchronized (versions) {
+            cached = versions.get(userId);
+        }
+        if (cached == null || cached.expiresAt <= now) {
+            Integer version = userRepository.findTokenVersionById(userId).orElse(null);
+            if (version == null) {
+                invalidate(userId);
+                return false;
+            }
+            cached = new CachedVersion(version, now + ttlMillis);
+            synchronized (versions) {
+                versions.put(userId, cached);
+            }
+        }
+        return cached.version == tokenVersion;
+    }
+    
+    public void update(Long userId, int tokenVersion) {
+        synchronized (versions) {
+            versions.put(userId, new CachedVersion(tokenVersion, System.currentTimeMillis() + ttlMillis));
+        }
+    }
+    
+    public void invalidate(Long userId) {
+        synchronized (versions) {
+            versions.remove(userId);
+        }
+    }
+    
+    public int size() {
+        synchronized (versions) {
+            return versions.size();
+        }
+    }
+    
+    private record CachedVersion(int version, long expiresAt) {
+    }
+}
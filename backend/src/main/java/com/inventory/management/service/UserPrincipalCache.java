@@ -0,0 +1,114 @@
+package com.inventory.management.service;
+
+import com.inventory.management.config.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of authenticated principals keyed by username. Entries are immutable
+ * {@link AuthenticatedUser} records (id, username, role, token version) rather than {@code User}
+ * entities, so request threads share no mutable state and no password hash is kept in memory.
+ * Entries are evicted least-recently-used once {@code max-size} is reached and are reloaded
+ * after {@code ttl-seconds}, so role changes made on other replicas are picked up eventually.
+ */
+@Service
+public class UserPrincipalCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<String, CachedPrincipal> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    @Autowired
+    public UserPrincipalCache(@Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+                              @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                              MeterRegistry meterRegistry) {
+        this(maxSize, ttlSeconds, meterRegistry, Clock.systemUTC());
+    }
+
+    UserPrincipalCache(int maxSize, long ttlSeconds, MeterRegistry meterRegistry, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                if (size() > UserPrincipalCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = Counter.builder("principal.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("principal.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("principal.cache.evictions").register(meterRegistry);
+        Gauge.builder("principal.cache.size", this, UserPrincipalCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached principal for {@code username}, invoking {@code loader} on a miss or
+     * after the entry has expired. Exceptions thrown by the loader are propagated and nothing is cached.
+     */
+    public AuthenticatedUser get(String username, Function<String, AuthenticatedUser> loader) {
+        long now = clock.millis();
+        synchronized (entries) {
+            CachedPrincipal cached = entries.get(username);
+            if (cached != null && cached.expiresAt > now) {
+                hits.increment();
+                return cached.principal;
+            }
+        }
+
+        misses.increment();
+        AuthenticatedUser principal = loader.apply(username);
+        if (maxSize > 0 && principal != null) {
+            synchronized (entries) {
+                entries.put(username, new CachedPrincipal(principal, now + ttlMillis));
+            }
+        }
+        return principal;
+    }
+
+    public void invalidate(String username) {
+        synchronized (entries) {
+            entries.remove(username);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return (long) hits.count();
+    }
+
+    public long getMissCount() {
+        return (long) misses.count();
+    }
+
+    private record CachedPrincipal(AuthenticatedUser principal, long expiresAt) {
+    }
+}
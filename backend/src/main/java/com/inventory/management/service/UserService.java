@@ -6,18 +6,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
 
 @Service
 @Transactional
 public class UserService {
     
+    public static final Set<String> ROLES = Set.of("USER", "ADMIN");
+    
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenVersionRegistry tokenVersionRegistry;
     
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       UserPrincipalCache userPrincipalCache, TokenVersionRegistry tokenVersionRegistry) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userPrincipalCache = userPrincipalCache;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
     
     @Transactional(readOnly = true)
@@ -36,6 +47,79 @@ public class UserService {
         }
         
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        evictPrincipal(savedUser.getUsername());
+        return savedUser;
+    }
+    
+    public User updateUserRole(Long userId, String role) {
+        if (role == null || !ROLES.contains(role)) {
+            throw new IllegalArgumentException("Role must be one of " + ROLES);
+        }
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        user.setRole(role);
+        // The role is signed into stateless tokens, so tokens issued with the old role are revoked
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User savedUser = userRepository.save(user);
+        evictPrincipal(savedUser.getUsername());
+        evictTokenVersion(savedUser.getId());
+        return savedUser;
+    }
+    
+    /**
+     * Invalidates every token issued to the user so far, in both token modes; returns the user with
+     * the new token version, from which a fresh token can be issued.
+     */
+    public User revokeTokens(Long userId) {
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        User savedUser = userRepository.save(user);
+        evictPrincipal(savedUser.getUsername());
+        evictTokenVersion(savedUser.getId());
+        return savedUser;
+    }
+    
+    /**
+     * Replaces the password after checking the current one, and revokes all existing tokens.
+     * Returns the updated user, or throws {@link IllegalArgumentException} if the check fails.
+     */
+    public User changePassword(Long userId, String currentPassword, String newPassword) {
+        if (newPassword == null || newPassword.isBlank()) {
+            throw new IllegalArgumentException("New password cannot be empty");
+        }
+        User user = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        if (currentPassword == null || !passwordEncoder.matches(currentPassword, user.getPassword())) {
+            throw new IllegalArgumentException("Current password is incorrect");
+        }
+        user.setPassword(passwordEncoder.encode(newPassword));
+        return revokeTokens(user.getId());
+    }
+    
+    /**
+     * Drops the cached principal now and again once the transaction commits, so a request that
+     * reloads the user while the change is still uncommitted cannot re-cache the stale row.
+     */
+    private void evictPrincipal(String username) {
+        userPrincipalCache.invalidate(username);
+        afterCommit(() -> userPrincipalCache.invalidate(username));
+    }
+    
+    private void evictTokenVersion(Long userId) {
+        tokenVersionRegistry.invalidate(userId);
+        afterCommit(() -> tokenVersionRegistry.invalidate(userId));
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.inventory.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.management.dto.InventoryChangeEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * POSTs each relayed batch as a JSON array to {@code app.outbox.sinks.webhook.url}. Any status
+ * other than 2xx fails the batch, which is retried on the next relay run.
+ */
+@Service
+@ConditionalOnExpression("!'${app.outbox.sinks.webhook.url:}'.isEmpty()")
+public class WebhookInventoryEventSink implements InventoryEventSink {
+    
+    private final URI uri;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    
+    public WebhookInventoryEventSink(@Value("${app.outbox.sinks.webhook.url}") String url,
+                                     @Value("${app.outbox.sinks.webhook.timeout-ms:5000}") long timeoutMillis,
+                                     ObjectMapper objectMapper) {
+        this.uri = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+    
+    @Override
+    public String name() {
+        return "webhook";
+    }
+    
+    @Override
+    public void publish(List<InventoryChangeEvent> events) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(events)))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.inventory.management.benchmark;
+
+import com.inventory.management.config.JwtUtil;
+import com.inventory.management.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in {@code JwtAuthenticationFilter}.
+ * {@code legacyThreeParses} reproduces the previous path (fresh key and parser, token parsed
+ * for the username, again in validateToken and again for the expiry check);
+ * {@code singlePassVerify} is the current one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+    
+    private static final String SECRET = "inventoryManagementSecretKey2025ForJWTTokenGenerationAndValidation";
+    
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        
+        user = new User("benchmark", "password", "benchmark@example.com");
+        token = jwtUtil.generateToken(user);
+    }
+    
+    @Benchmark
+    public boolean legacyThreeParses() {
+        String username = legacyParse(token).getSubject();
+        if (username == null) {
+            return false;
+        }
+        String validatedUsername = legacyParse(token).getSubject();
+        Date expiration = legacyParse(token).getExpiration();
+        return validatedUsername.equals(user.getUsername()) && !expiration.before(new Date());
+    }
+    
+    @Benchmark
+    public boolean singlePassVerify() {
+        Claims claims = jwtUtil.verifyToken(token);
+        return jwtUtil.validateClaims(claims, user);
+    }
+    
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
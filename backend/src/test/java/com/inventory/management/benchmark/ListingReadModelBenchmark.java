@@ -0,0 +1,138 @@
+package com.inventory.management.benchmark;
+
+import com.inventory.management.InventoryManagementApplication;
+import com.inventory.management.dto.HistoryEntryView;
+import com.inventory.management.dto.OrderCursor;
+import com.inventory.management.dto.OrderDTO;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.dto.OrderPage;
+import com.inventory.management.dto.ProductDTO;
+import com.inventory.management.dto.ProductFilter;
+import com.inventory.management.dto.ProductSort;
+import com.inventory.management.dto.ProductView;
+import com.inventory.management.model.InventoryHistory;
+import com.inventory.management.model.Order;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.InventoryHistoryRepository;
+import com.inventory.management.repository.ProductCatalogRepository;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.OrderService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List endpoints against in-memory H2: {@code PRODUCTS} products, {@code ORDERS} orders of
+ * {@code LINES} lines each, and the history rows they produce. The {@code entity*} methods reproduce
+ * the previous path (managed entities in a read-only transaction, copied into DTOs, with the order
+ * listing's unbounded fetch join); the {@code projected*} methods are the current projection queries.
+ * Allocation per operation is reported with {@code -prof gc} ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListingReadModelBenchmark {
+
+    private static final int PRODUCTS = 500;
+    private static final int ORDERS = 200;
+    private static final int LINES = 5;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private ProductCatalogRepository productCatalogRepository;
+    private InventoryHistoryRepository historyRepository;
+    private OrderService orderService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:listingbench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--app.orders.page.max-size=" + ORDERS);
+        productRepository = context.getBean(ProductRepository.class);
+        productCatalogRepository = context.getBean(ProductCatalogRepository.class);
+        historyRepository = context.getBean(InventoryHistoryRepository.class);
+        orderService = context.getBean(OrderService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        user = context.getBean(UserRepository.class).save(new User("bench", "not-a-hash", "bench@example.com"));
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(productRepository.save(new Product(
+                "BENCH-" + i, "Product " + i, "Description of product " + i, new BigDecimal("9.99"), 1_000_000, "bench", user)));
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItemRequest> items = new ArrayList<>();
+            for (int line = 0; line < LINES; line++) {
+                Product product = products.get((i * LINES + line) % PRODUCTS);
+                items.add(new OrderItemRequest(product.getId(), 1, product.getPrice()));
+            }
+            orderService.createOrder(items, user);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ProductDTO> entityProducts() {
+        return readOnly.execute(status -> productRepository.findByUserOrderByName(user).stream().map(ProductDTO::new).toList());
+    }
+
+    @Benchmark
+    public List<ProductView> projectedProducts() {
+        return readOnly.execute(status -> productCatalogRepository.findPage(
+                user, ProductFilter.all(), ProductSort.NAME, false, null, PRODUCTS));
+    }
+
+    @Benchmark
+    public List<OrderDTO> entityOrders() {
+        return readOnly.execute(status -> entityManager.createQuery(
+                "SELECT o FROM Order o LEFT JOIN FETCH o.orderItems oi LEFT JOIN FETCH oi.product " +
+                "WHERE o.user = :user ORDER BY o.orderDate DESC", Order.class)
+            .setParameter("user", user)
+            .getResultList().stream().map(OrderDTO::new).toList());
+    }
+
+    @Benchmark
+    public OrderPage projectedOrders() {
+        return orderService.getOrdersByUser(user, OrderCursor.START, ORDERS);
+    }
+
+    @Benchmark
+    public List<InventoryHistory> entityHistory() {
+        return readOnly.execute(status -> historyRepository.findByUserOrderByCreatedAtDesc(user));
+    }
+
+    @Benchmark
+    public List<HistoryEntryView> projectedHistory() {
+        return readOnly.execute(status -> historyRepository.findViewsByUser(user));
+    }
+}
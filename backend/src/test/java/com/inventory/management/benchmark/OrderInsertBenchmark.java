@@ -0,0 +1,154 @@
+package com.inventory.management.benchmark;
+
+import com.inventory.management.InventoryManagementApplication;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.Order;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation throughput through {@link OrderService} against in-memory H2, with {@code LINES}
+ * lines per order (one order row, {@code LINES} item rows and {@code LINES} history rows).
+ * {@code batchSize=1} is the insert pattern IDENTITY ids forced on Hibernate, one statement per row;
+ * {@code batchSize=30} is the configured {@code hibernate.jdbc.batch_size}, which pooled sequence ids
+ * make effective. An in-memory round trip costs nothing, so {@code roundTripMicros} adds a fixed delay
+ * to every statement execution (a single batch counts once) to stand in for a networked database.
+ * <p>
+ * Measured on one core, JDK 17, {@code -wi 25 -w 3 -i 8 -r 3}, orders per second (99.9% error):
+ * <pre>
+ *                                   roundTripMicros=0   roundTripMicros=250
+ * IDENTITY ids, batchSize=30        71.6 ± 25.2         38.6 ± 14.3
+ * pooled sequences, batchSize=30    74.4 ± 14.1         33.9 ±  8.8
+ * pooled sequences, batchSize=1                         30.7 ±  6.9
+ * pooled sequences, batchSize=30                        36.7 ±  6.4   (same run as the line above)
+ * </pre>
+ * The differences are within the error: each order also runs one conditional stock update per line
+ * and the outbox writes, which batching cannot group, so the inserts it saves are a small share of
+ * the statements. The gain should be checked against PostgreSQL over a real network before relying on it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderInsertBenchmark {
+
+    private static final int LINES = 10;
+
+    @Param({"1", "30"})
+    public int batchSize;
+
+    @Param({"0", "250"})
+    public long roundTripMicros;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private User user;
+    private List<OrderItemRequest> items;
+
+    @Setup
+    public void setUp() {
+        // Passed as arguments so that they override application.properties
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                    .addBeanPostProcessor(new RoundTripLatency(roundTripMicros)))
+                .run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:orderbench" + batchSize + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        orderService = context.getBean(OrderService.class);
+
+        user = context.getBean(UserRepository.class).save(new User("bench", "not-a-hash", "bench@example.com"));
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        items = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product product = productRepository.save(new Product(
+                "BENCH-" + i, "Product " + i, "", new BigDecimal("9.99"), Integer.MAX_VALUE / 2, "bench", user));
+            items.add(new OrderItemRequest(product.getId(), 1, product.getPrice()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(items, user);
+    }
+
+    /**
+     * Wraps the DataSource so that each statement execution waits {@code micros} before running.
+     */
+    static class RoundTripLatency implements BeanPostProcessor {
+
+        private final long nanos;
+
+        RoundTripLatency(long micros) {
+            this.nanos = TimeUnit.MICROSECONDS.toNanos(micros);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (nanos == 0 || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource);
+        }
+
+        private <T> T proxy(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("execute")) {
+                    long until = System.nanoTime() + nanos;
+                    while (System.nanoTime() < until) {
+                        Thread.onSpinWait();
+                    }
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && !(result instanceof Proxy)) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof PreparedStatement statement) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (result instanceof Statement statement) {
+                    return proxy(Statement.class, statement);
+                }
+                return result;
+            }));
+        }
+    }
+}
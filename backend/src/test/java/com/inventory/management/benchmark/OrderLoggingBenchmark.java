@@ -0,0 +1,149 @@
+package com.inventory.management.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging overhead of one order creation with {@code ITEMS} lines, from 8 concurrent request threads.
+ * {@code legacyPrintln} replays the volume of the removed System.out tracing (request map, every item,
+ * every step) against a synchronized PrintStream; the other two issue the structured events that
+ * OrderController/OrderService now emit, with the categories off and on behind the async appender.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class OrderLoggingBenchmark {
+
+    private static final int ITEMS = 20;
+
+    private PrintStream stdout;
+    private Map<String, Object> orderRequest;
+    private List<Map<String, Object>> items;
+    private Logger disabledLogger;
+    private Logger enabledLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        stdout = new PrintStream(new FileOutputStream("/dev/null"), true);
+
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("product", Map.of("id", i + 1));
+            item.put("quantity", 2);
+            item.put("unitPrice", 19.99);
+            items.add(item);
+        }
+        orderRequest = Map.of("orderItems", items);
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5p [%t] %logger{39} : %m %kvp%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(new FileOutputStream("/dev/null"));
+        sink.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(sink);
+        async.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.WARN);
+        root.addAppender(async);
+
+        disabledLogger = context.getLogger("bench.disabled");
+        ch.qos.logback.classic.Logger enabled = context.getLogger("bench.enabled");
+        enabled.setLevel(Level.TRACE);
+        enabledLogger = enabled;
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        stdout.close();
+    }
+
+    @Benchmark
+    public void legacyPrintln() {
+        stdout.println("=== ORDER CREATION START ===");
+        stdout.println("Creating order with request: " + orderRequest);
+        stdout.println("Current user: benchmark (ID: 1)");
+        stdout.println("Order items data: " + items);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < items.size(); i++) {
+            Map<String, Object> item = items.get(i);
+            stdout.println("Processing item " + (i + 1) + ": " + item);
+            stdout.println("Product data: " + item.get("product"));
+            stdout.println("Parsed values - Product ID: " + (i + 1) + ", Quantity: 2, Unit Price: 19.99");
+            stdout.println("Found product: Product " + i + " with stock: 100, Product user ID: 1");
+            stdout.println("OrderItem created - Product: Product " + i + ", Quantity: 2, Unit Price: 19.99");
+            stdout.println("Added order item - Product: Product " + i + ", Quantity: 2, Unit Price: 19.99");
+            total = total.add(new BigDecimal("39.98"));
+            stdout.println("Updated total amount: " + total);
+        }
+        stdout.println("=== ORDER SERVICE START ===");
+        for (int i = 0; i < items.size(); i++) {
+            stdout.println("Updated product Product " + i + " quantity from 100 to 98");
+            stdout.println("Created inventory history for product: Product " + i);
+            stdout.println("Saved order item for product: Product " + i);
+            stdout.println("  - Product: Product " + i + ", Quantity: 2, Unit Price: 19.99, Total: 39.98");
+        }
+        stdout.println("=== ORDER CREATION SUCCESS ===");
+    }
+
+    @Benchmark
+    public void structuredCategoriesOff() {
+        structuredEvents(disabledLogger);
+    }
+
+    @Benchmark
+    public void structuredCategoriesOnAsync() {
+        structuredEvents(enabledLogger);
+    }
+
+    private void structuredEvents(Logger log) {
+        for (int i = 0; i < items.size(); i++) {
+            log.atTrace().addKeyValue("productId", i + 1).addKeyValue("quantity", 2)
+                .addKeyValue("unitPrice", "19.99").log("order item parsed");
+        }
+        for (int i = 0; i < items.size(); i++) {
+            log.atTrace().addKeyValue("productId", i + 1).addKeyValue("from", 100)
+                .addKeyValue("to", 98).log("stock decremented");
+        }
+        log.atDebug().addKeyValue("userId", 1L).addKeyValue("orderId", 42L)
+            .addKeyValue("items", items.size()).log("order created");
+        log.atDebug().addKeyValue("userId", 1L).addKeyValue("orderId", 42L)
+            .addKeyValue("items", items.size()).log("order request completed");
+    }
+}
@@ -0,0 +1,82 @@
+package com.inventory.management.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.inventory.management.dto.CreateOrderRequest;
+import com.inventory.management.dto.CreateOrderRequestDeserializer;
+import com.inventory.management.dto.OrderItemRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding a {@code LINES}-line POST /api/orders body, in the shape the frontend sends.
+ * {@code legacyMapBinding} reproduces the previous path (map-of-maps, then toString/valueOf per
+ * field); {@code streamingBinding} is the current {@link CreateOrderRequestDeserializer}.
+ * Allocation per operation is reported with {@code -prof gc} ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Measured on one core, JDK 17, {@code -wi 10 -w 2 -i 8 -r 2 -prof gc} (99.9% error):
+ * <pre>
+ * legacyMapBinding    585 ± 286 µs/op   443,433 B/op
+ * streamingBinding    246 ±  40 µs/op    92,264 B/op
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderRequestBindingBenchmark {
+
+    private static final int LINES = 500;
+
+    private ObjectMapper legacyMapper;
+    private ObjectMapper streamingMapper;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        legacyMapper = new ObjectMapper();
+        streamingMapper = new ObjectMapper()
+                .registerModule(new SimpleModule().addDeserializer(CreateOrderRequest.class, new CreateOrderRequestDeserializer(1000, Long.MAX_VALUE, Long.MAX_VALUE)));
+
+        StringBuilder json = new StringBuilder("{\"orderItems\":[");
+        for (int i = 0; i < LINES; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"product\":{\"id\":").append(1000 + i).append("},\"quantity\":").append(1 + i % 7)
+                .append(",\"unitPrice\":").append(9.99 + i).append('}');
+        }
+        body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<OrderItemRequest> legacyMapBinding() throws IOException {
+        Map<String, Object> orderRequest = legacyMapper.readValue(body, new TypeReference<Map<String, Object>>() {});
+        List<Map<String, Object>> orderItemsData = (List<Map<String, Object>>) orderRequest.get("orderItems");
+        List<OrderItemRequest> items = new ArrayList<>(orderItemsData.size());
+        for (Map<String, Object> itemData : orderItemsData) {
+            Map<String, Object> productData = (Map<String, Object>) itemData.get("product");
+            Long productId = Long.valueOf(productData.get("id").toString());
+            Integer quantity = Integer.valueOf(itemData.get("quantity").toString());
+            BigDecimal unitPrice = new BigDecimal(itemData.get("unitPrice").toString());
+            items.add(new OrderItemRequest(productId, quantity, unitPrice));
+        }
+        return items;
+    }
+
+    @Benchmark
+    public List<OrderItemRequest> streamingBinding() throws IOException {
+        return streamingMapper.readValue(body, CreateOrderRequest.class).getOrderItems();
+    }
+}
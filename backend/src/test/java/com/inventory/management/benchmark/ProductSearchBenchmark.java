@@ -0,0 +1,119 @@
+package com.inventory.management.benchmark;
+
+import com.inventory.management.InventoryManagementApplication;
+import com.inventory.management.dto.ProductFilter;
+import com.inventory.management.dto.ProductPage;
+import com.inventory.management.dto.ProductSort;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product search for one user with {@code products} products against in-memory H2: {@code database}
+ * is the name {@code LIKE '%term%'} query behind the search endpoint without the index, {@code index}
+ * is {@link com.inventory.management.service.ProductSearchIndex} (built before measuring). Both load
+ * the first page of {@code LIMIT} products. {@code brass} matches a tenth of the catalog, {@code 4217}
+ * a handful of products. H2 in memory understates the database path, which also ships rows over the
+ * network in production. The million-product case needs a larger heap than the JVM default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    private static final int LIMIT = 50;
+    private static final String[] MATERIALS = {"brass", "steel", "oak", "nylon", "copper", "walnut", "rubber", "glass", "linen", "cedar"};
+    private static final String[] ITEMS = {"bracket", "hinge", "washer", "panel", "spacer", "clamp", "bolt", "flange"};
+
+    @Param({"100000", "1000000"})
+    public int products;
+
+    @Param({"brass", "4217"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private User user;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = new SpringApplicationBuilder(InventoryManagementApplication.class).run(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:searchbench;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--app.products.search-index.enabled=true",
+                "--app.products.search-index.max-products=" + products);
+        productService = context.getBean(ProductService.class);
+        user = context.getBean(UserRepository.class).save(new User("bench", "not-a-hash", "bench@example.com"));
+        insertProducts(context.getBean(DataSource.class));
+        // Builds the user's index
+        productService.searchProducts(user, "warm", null, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductPage database() {
+        return productService.getProductPage(user, ProductFilter.nameContains(query), ProductSort.NAME, false, null, LIMIT);
+    }
+
+    @Benchmark
+    public ProductPage index() {
+        return productService.searchProducts(user, query, null, LIMIT);
+    }
+
+    // Plain JDBC batches: saving a million entities through JPA would dominate the run
+    private void insertProducts(DataSource dataSource) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO products (id, sku, name, description, price, quantity, category, user_id, created_at, updated_at) " +
+                 "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            for (int i = 1; i <= products; i++) {
+                String material = MATERIALS[i % MATERIALS.length];
+                String item = ITEMS[(i / MATERIALS.length) % ITEMS.length];
+                insert.setLong(1, i);
+                insert.setString(2, "SKU-" + i);
+                insert.setString(3, material + " " + item + " " + i);
+                insert.setString(4, "A " + material + " " + item + " for general use");
+                insert.setBigDecimal(5, new BigDecimal("9.99"));
+                insert.setInt(6, 100);
+                insert.setString(7, item);
+                insert.setLong(8, user.getId());
+                insert.setTimestamp(9, now);
+                insert.setTimestamp(10, now);
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * JMH microbenchmarks. They are compiled with the test sources but are not run by {@code mvn test}.
+ * <p>
+ * From {@code backend/}:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/bench.classpath
+ * java -cp "target/test-classes:target/classes:$(cat target/bench.classpath)" org.openjdk.jmh.Main JwtVerificationBenchmark
+ * </pre>
+ */
+package com.inventory.management.benchmark;
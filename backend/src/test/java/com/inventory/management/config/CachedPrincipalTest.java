@@ -0,0 +1,114 @@
+package com.inventory.management.config;
+
+import com.inventory.management.controller.AuthController;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.UserPrincipalCache;
+import com.inventory.management.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CachedPrincipalTest {
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthController authController;
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void changesToTheUserEvictTheCachedPrincipal() throws Exception {
+        User user = userRepository.save(new User("cached", "not-a-hash", "cached@example.com"));
+        String token = jwtUtil.generateToken(user);
+
+        long misses = userPrincipalCache.getMissCount();
+        long hits = userPrincipalCache.getHitCount();
+        AuthenticatedUser principal = authenticate(token);
+        assertEquals(new AuthenticatedUser(user.getId(), "cached", user.getRole(), user.getTokenVersion()), principal);
+        authenticate(token);
+        assertEquals(misses + 1, userPrincipalCache.getMissCount());
+        assertEquals(hits + 1, userPrincipalCache.getHitCount());
+
+        User revoked = userService.revokeTokens(user.getId());
+        assertNull(authenticate(token));
+        assertEquals(misses + 2, userPrincipalCache.getMissCount());
+        assertEquals(user.getTokenVersion() + 1, authenticate(jwtUtil.generateToken(revoked)).tokenVersion());
+    }
+
+    @Test
+    public void logoutAllRejectsTokensIssuedBefore() throws Exception {
+        User user = userRepository.save(new User("everywhere", "not-a-hash", "everywhere@example.com"));
+        String token = jwtUtil.generateToken(user);
+        AuthenticatedUser principal = authenticate(token);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        assertEquals(HttpStatus.NO_CONTENT, authController.logoutAll().getStatusCode());
+
+        assertNull(authenticate(token));
+    }
+
+    @Test
+    public void roleChangesEvictTheCachedPrincipal() throws Exception {
+        User user = userRepository.save(new User("demoted", "not-a-hash", "demoted@example.com"));
+        userService.updateUserRole(user.getId(), "ADMIN");
+        User admin = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("ADMIN", authenticate(jwtUtil.generateToken(admin)).role());
+
+        long misses = userPrincipalCache.getMissCount();
+        userService.updateUserRole(user.getId(), "USER");
+        User demoted = userRepository.findById(user.getId()).orElseThrow();
+        AuthenticatedUser principal = authenticate(jwtUtil.generateToken(demoted));
+        assertEquals("USER", principal.role());
+        assertEquals(List.of("ROLE_USER"), principal.getAuthorities().stream().map(Object::toString).toList());
+        assertEquals(misses + 1, userPrincipalCache.getMissCount());
+    }
+
+    // The principal the filter authenticated the request as, or null if it rejected the token
+    private AuthenticatedUser authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicReference<Object> principal = new AtomicReference<>();
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            principal.set(authentication == null ? null : authentication.getPrincipal());
+        });
+        return principal.get() == null ? null : assertInstanceOf(AuthenticatedUser.class, principal.get());
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.management.config;
+
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import com.inventory.management.service.TokenVersionRegistry;
+import com.inventory.management.service.UserService;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "jwt.stateless-principal=true"
+})
+public class StatelessPrincipalTest {
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void claimsAuthenticateUntilTheTokenIsRevoked() throws Exception {
+        User user = userRepository.save(new User("stateless", "not-a-hash", "stateless@example.com"));
+        String token = jwtUtil.generateToken(user);
+
+        User resolved = authenticate(token);
+        assertEquals(user.getId(), resolved.getId());
+        // A reference, not a half-filled copy: unloaded fields fail instead of reading as null
+        assertThrows(LazyInitializationException.class, resolved::getEmail);
+        // Enough to own new rows
+        Product product = productRepository.save(new Product("STL-1", "Owned", "", BigDecimal.ONE, 1, "test", resolved));
+        assertTrue(productRepository.findByIdAndUser(product.getId(), user).isPresent());
+
+        userService.revokeTokens(user.getId());
+        assertNull(authenticate(token));
+        assertEquals(user.getId(), authenticate(jwtUtil.generateToken(userRepository.findById(user.getId()).orElseThrow())).getId());
+    }
+
+    @Test
+    public void tokenVersionsStayWithinTheirBound() {
+        TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, 60, 2);
+        for (int i = 0; i < 3; i++) {
+            User user = userRepository.save(new User("versioned" + i, "not-a-hash", "versioned" + i + "@example.com"));
+            assertTrue(registry.isCurrent(user.getId(), user.getTokenVersion()));
+        }
+        assertEquals(2, registry.size());
+    }
+
+    // The user the request resolves to once the filter has run, or null if it was not authenticated
+    private User authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        AtomicReference<User> resolved = new AtomicReference<>();
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            if (SecurityContextHolder.getContext().getAuthentication() != null) {
+                assertInstanceOf(AuthenticatedUser.class, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+                resolved.set(currentUserResolver.getCurrentUser());
+            }
+        });
+        return resolved.get();
+    }
+}
@@ -0,0 +1,74 @@
+package com.inventory.management.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CreateOrderRequestDeserializerTest {
+
+    private static final long MAX_PAYLOAD_BYTES = 1024;
+    private static final long MAX_BATCH_PAYLOAD_BYTES = 4096;
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new SimpleModule()
+            .addDeserializer(CreateOrderRequest.class, new CreateOrderRequestDeserializer(1000, MAX_PAYLOAD_BYTES, MAX_BATCH_PAYLOAD_BYTES)));
+
+    @Test
+    public void readsBothLineShapes() throws IOException {
+        CreateOrderRequest request = mapper.readValue(stream(
+                "{\"orderItems\":[{\"productId\":7,\"quantity\":2},{\"product\":{\"id\":\"8\"},\"quantity\":\"3\",\"unitPrice\":1.5}]}"),
+                CreateOrderRequest.class);
+
+        assertEquals(2, request.getOrderItems().size());
+        assertEquals(8L, request.getOrderItems().get(1).getProductId());
+        assertEquals(3, request.getOrderItems().get(1).getQuantity());
+    }
+
+    @Test
+    public void rejectsQuantitiesBelowOne() {
+        assertThrows(MismatchedInputException.class, () -> mapper.readValue(
+                stream("{\"orderItems\":[{\"productId\":7,\"quantity\":0}]}"), CreateOrderRequest.class));
+        assertThrows(MismatchedInputException.class, () -> mapper.readValue(
+                stream("{\"orderItems\":[{\"productId\":7,\"quantity\":-4}]}"), CreateOrderRequest.class));
+    }
+
+    // Nothing declares a length here, as with a chunked request
+    @Test
+    public void capsTheBytesReadFromTheBody() {
+        assertThrows(CreateOrderRequestDeserializer.PayloadTooLargeException.class,
+                () -> mapper.readValue(stream(lines(40)), CreateOrderRequest.class));
+        assertThrows(CreateOrderRequestDeserializer.PayloadTooLargeException.class,
+                () -> mapper.readValue(stream("{\"note\":\"" + "x".repeat(2048) + "\",\"orderItems\":[]}"), CreateOrderRequest.class));
+    }
+
+    @Test
+    public void ordersInABatchShareTheBatchLimit() throws IOException {
+        String order = lines(20);
+        BatchOrderRequest batch = mapper.readValue(stream("{\"orders\":[" + order + "," + order + "]}"), BatchOrderRequest.class);
+        assertEquals(2, batch.getOrders().size());
+
+        String tooMany = "{\"orders\":[" + String.join(",", order, order, order, order, order, order, order, order) + "]}";
+        assertThrows(CreateOrderRequestDeserializer.PayloadTooLargeException.class,
+                () -> mapper.readValue(stream(tooMany), BatchOrderRequest.class));
+    }
+
+    private static String lines(int count) {
+        StringBuilder json = new StringBuilder("{\"orderItems\":[");
+        for (int i = 0; i < count; i++) {
+            json.append(i > 0 ? "," : "").append("{\"productId\":").append(1000 + i).append(",\"quantity\":1}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
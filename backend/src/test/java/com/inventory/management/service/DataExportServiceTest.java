@@ -0,0 +1,87 @@
+package com.inventory.management.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DataExportServiceTest {
+
+    @Autowired
+    private DataExportService exportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void ordersAreExportedOneLinePerOrderLine() throws Exception {
+        User user = userRepository.save(new User("exporter", "not-a-hash", "exporter@example.com"));
+        Product widget = productRepository.save(new Product("EXP-1", "Widget, large", "", BigDecimal.ONE, 100, "test", user));
+        Product gadget = productRepository.save(new Product("EXP-2", "Gadget \"mini\"", "", BigDecimal.TEN, 100, "test", user));
+        orderService.createOrder(List.of(
+            new OrderItemRequest(widget.getId(), 2, BigDecimal.ONE),
+            new OrderItemRequest(gadget.getId(), 1, BigDecimal.TEN)), user);
+        orderService.createOrder(List.of(new OrderItemRequest(widget.getId(), 1, BigDecimal.ONE)), user);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long csvRows = exportService.exportOrders(user, null, null, DataExportService.Format.CSV, csv);
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, csvRows);
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("orderId,orderNumber,orderDate,status"));
+        assertTrue(lines[1].contains(",EXP-1,\"Widget, large\",2,"));
+        assertTrue(lines[2].contains(",EXP-2,\"Gadget \"\"mini\"\"\",1,"));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long jsonRows = exportService.exportOrders(user, null, null, DataExportService.Format.NDJSON, ndjson);
+        String[] records = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, jsonRows);
+        assertEquals(3, records.length);
+        JsonNode first = objectMapper.readTree(records[0]);
+        assertEquals("EXP-1", first.get("sku").asText());
+        assertEquals("PENDING", first.get("status").asText());
+    }
+
+    @Test
+    public void dateRangeIsApplied() {
+        User user = userRepository.save(new User("exportrange", "not-a-hash", "exportrange@example.com"));
+        productService.createProduct(new Product("EXP-3", "Ranged", "", BigDecimal.ONE, 5, "test", user), user);
+
+        ByteArrayOutputStream today = new ByteArrayOutputStream();
+        ByteArrayOutputStream yesterday = new ByteArrayOutputStream();
+        LocalDate now = LocalDate.now();
+
+        assertEquals(1, exportService.exportHistory(user, now, now, DataExportService.Format.NDJSON, today));
+        assertEquals(0, exportService.exportHistory(user, null, now.minusDays(1), DataExportService.Format.NDJSON, yesterday));
+    }
+}
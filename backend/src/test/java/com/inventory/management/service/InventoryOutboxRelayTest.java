@@ -0,0 +1,123 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.InventoryChangeEvent;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.InventoryOutboxEvent;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.InventoryOutboxRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "app.outbox.sinks.in-process.enabled=true",
+    // Runs once at startup only; the test drives the relay itself
+    "app.outbox.relay.interval-ms=3600000"
+})
+public class InventoryOutboxRelayTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InventoryOutboxRelay relay;
+
+    @Autowired
+    private InventoryOutboxRepository outboxRepository;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Test
+    public void changesAreRelayedInOrderOnce() {
+        User user = userRepository.save(new User("outbox", "not-a-hash", "outbox@example.com"));
+        Product product = productService.createProduct(
+            new Product("OUT-1", "Relayed", "", new BigDecimal("1.00"), 10, "test", user), user);
+        orderService.createOrder(List.of(new OrderItemRequest(product.getId(), 4, BigDecimal.ONE)), user);
+        productService.updateProductQuantity(product.getId(), 20, user);
+
+        relay.relay();
+        relay.relay();
+
+        List<InventoryChangeEvent> events = listener.events.stream()
+                .filter(event -> event.productId().equals(product.getId()))
+                .toList();
+        assertEquals(List.of("ADD", "ORDER", "UPDATE"), events.stream().map(InventoryChangeEvent::action).toList());
+        assertEquals(List.of(10, 6, 20), events.stream().map(InventoryChangeEvent::newQuantity).toList());
+        assertEquals(0, outboxRepository.countByPublishedAtIsNull());
+    }
+
+    @Test
+    public void claimedBatchesHoldBackLaterEvents() {
+        User user = userRepository.save(new User("outboxclaim", "not-a-hash", "outboxclaim@example.com"));
+        Product product = productService.createProduct(
+            new Product("OUT-2", "Claimed", "", new BigDecimal("1.00"), 10, "test", user), user);
+        productService.updateProductQuantity(product.getId(), 12, user);
+
+        // As a relay on another replica would leave them mid-delivery
+        InventoryOutboxEvent first = outboxRepository.findAll().stream()
+                .filter(row -> row.getProductId().equals(product.getId()) && row.getPublishedAt() == null)
+                .min(Comparator.comparing(InventoryOutboxEvent::getId))
+                .orElseThrow();
+        first.setClaimedUntil(LocalDateTime.now().plusMinutes(5));
+        outboxRepository.save(first);
+
+        relay.relay();
+        assertTrue(relayed(product).isEmpty());
+
+        // Lapsed: the relay that claimed it is gone
+        first.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(first);
+
+        relay.relay();
+        assertEquals(List.of(10, 12), relayed(product).stream().map(InventoryChangeEvent::newQuantity).toList());
+        assertEquals(0, outboxRepository.countByPublishedAtIsNull());
+    }
+
+    private List<InventoryChangeEvent> relayed(Product product) {
+        return listener.events.stream().filter(event -> event.productId().equals(product.getId())).toList();
+    }
+
+    @TestConfiguration
+    static class Listeners {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener {
+
+        final List<InventoryChangeEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void on(InventoryChangeEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.inventory.management.service;
+
+import com.inventory.management.controller.ProductController;
+import com.inventory.management.dto.LowStockItem;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.dto.ProductDTO;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LowStockMonitorTest {
+
+    @Autowired
+    private LowStockMonitor lowStockMonitor;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductController productController;
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void productsEnterAndLeaveAtTheirOwnThresholds() {
+        User user = userRepository.save(new User("lowstock", "not-a-hash", "lowstock@example.com"));
+        Product widget = new Product("WDG-1", "Widget", "", BigDecimal.ONE, 8, "test", user);
+        widget.setReorderThreshold(5);
+        widget = productService.createProduct(widget, user);
+        // No threshold of its own: the default of 10 applies
+        Product gadget = productService.createProduct(new Product("GDG-1", "Gadget", "", BigDecimal.ONE, 3, "test", user), user);
+
+        assertEquals(List.of("Gadget"), names(lowStockMonitor.getLowStock(user)));
+
+        productService.updateProductQuantity(widget.getId(), 5, user);
+        assertEquals(List.of("Gadget", "Widget"), names(lowStockMonitor.getLowStock(user)));
+
+        orderService.createOrder(List.of(new OrderItemRequest(widget.getId(), 3, BigDecimal.ONE)), user);
+        List<LowStockItem> lowStock = lowStockMonitor.getLowStock(user);
+        assertEquals(List.of("Widget", "Gadget"), names(lowStock));
+        assertEquals(2, lowStock.get(0).quantity());
+        assertEquals(5, lowStock.get(0).reorderThreshold());
+
+        productService.updateProductQuantity(gadget.getId(), 20, user);
+        assertEquals(List.of("Widget"), names(lowStockMonitor.getLowStock(user)));
+
+        Product lowered = new Product("WDG-1", "Widget", "", BigDecimal.ONE, 2, "test", user);
+        lowered.setReorderThreshold(1);
+        productService.updateProduct(widget.getId(), lowered, user);
+        assertEquals(List.of(), names(lowStockMonitor.getLowStock(user)));
+    }
+
+    @Test
+    public void resyncPicksUpChangesMadeElsewhere() {
+        User user = userRepository.save(new User("lowstockresync", "not-a-hash", "lowstockresync@example.com"));
+        productService.createProduct(new Product("BLT-1", "Bolt", "", BigDecimal.ONE, 50, "test", user), user);
+        assertEquals(List.of(), names(lowStockMonitor.getLowStock(user)));
+
+        // Saved directly, as another replica would: no event reaches this one
+        productRepository.save(new Product("NUT-1", "Nut", "", BigDecimal.ONE, 4, "test", user));
+        assertEquals(List.of(), names(lowStockMonitor.getLowStock(user)));
+
+        lowStockMonitor.resync();
+        assertEquals(List.of("Nut"), names(lowStockMonitor.getLowStock(user)));
+    }
+
+    @Test
+    public void updatesWithoutAThresholdKeepTheCurrentOne() {
+        User user = userRepository.save(new User("lowstockkeep", "not-a-hash", "lowstockkeep@example.com"));
+        Product screw = new Product("SCR-1", "Screw", "", BigDecimal.ONE, 20, "test", user);
+        screw.setReorderThreshold(25);
+        screw = productService.createProduct(screw, user);
+
+        // A client that predates the field sends no threshold at all
+        productService.updateProduct(screw.getId(), new Product("SCR-1", "Screw", "", BigDecimal.ONE, 22, "test", user), user);
+
+        assertEquals(25, productRepository.findById(screw.getId()).orElseThrow().getReorderThreshold());
+        assertEquals(List.of("Screw"), names(lowStockMonitor.getLowStock(user)));
+    }
+
+    @Test
+    public void lowStockEndpointStillListsProducts() {
+        User user = userRepository.save(new User("lowstockdto", "not-a-hash", "lowstockdto@example.com"));
+        productService.createProduct(new Product("PIN-1", "Pin", "Steel pin", new BigDecimal("0.25"), 6, "test", user), user);
+        productService.createProduct(new Product("NAL-1", "Nail", "", BigDecimal.ONE, 2, "test", user), user);
+        productService.createProduct(new Product("RIV-1", "Rivet", "", BigDecimal.ONE, 40, "test", user), user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+
+        ResponseEntity<?> response = productController.getLowStockProducts(null, "quantity", "asc", null, null);
+
+        List<?> body = (List<?>) response.getBody();
+        assertEquals(2, body.size());
+        ProductDTO first = (ProductDTO) body.get(0);
+        assertEquals("Nail", first.getName());
+        ProductDTO second = (ProductDTO) body.get(1);
+        assertEquals("Steel pin", second.getDescription());
+        assertEquals(0, new BigDecimal("0.25").compareTo(second.getPrice()));
+    }
+
+    private static List<String> names(List<LowStockItem> items) {
+        return items.stream().map(LowStockItem::name).toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.Order;
+import com.inventory.management.model.OrderItem;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class OrderFetchPlanTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void orderDetailLoadsItemsAndProductsInOneQuery() {
+        User user = userRepository.save(new User("fetchplan", "not-a-hash", "fetchplan@example.com"));
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = productRepository.save(new Product("PLAN-" + i, "Planned " + i, "", BigDecimal.ONE, 10, "test", user));
+            items.add(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE));
+        }
+        Order created = orderService.createOrder(items, user);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Order order = orderService.getOrderByIdAndUser(created.getId(), user).orElseThrow();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(Hibernate.isInitialized(order.getOrderItems()));
+        assertEquals(3, order.getOrderItems().size());
+        for (OrderItem item : order.getOrderItems()) {
+            assertTrue(Hibernate.isInitialized(item.getProduct()));
+        }
+    }
+
+    @Test
+    public void orderDetailIsScopedToItsOwner() {
+        User owner = userRepository.save(new User("planowner", "not-a-hash", "planowner@example.com"));
+        User other = userRepository.save(new User("planother", "not-a-hash", "planother@example.com"));
+        Product product = productRepository.save(new Product("PLAN-X", "Owned", "", BigDecimal.ONE, 10, "test", owner));
+        Order created = orderService.createOrder(List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE)), owner);
+
+        assertTrue(orderService.getOrderByIdAndUser(created.getId(), other).isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.Order;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderIdempotencyTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void retryReturnsOriginalOrderWithoutDecrementingAgain() {
+        User user = userRepository.save(new User("retry", "not-a-hash", "retry@example.com"));
+        Product product = productRepository.save(new Product("IDEM-1", "Retried", "", new BigDecimal("2.50"), 10, "test", user));
+        List<OrderItemRequest> items = List.of(new OrderItemRequest(product.getId(), 3, new BigDecimal("2.50")));
+
+        Order first = orderService.createOrder(items, user, "key-1");
+        Order retry = orderService.createOrder(items, user, "key-1");
+
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(7, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+
+        Order other = orderService.createOrder(items, user, "key-2");
+        assertNotEquals(first.getId(), other.getId());
+        assertEquals(4, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void keyReusedForDifferentOrderIsRejected() {
+        User user = userRepository.save(new User("reuse", "not-a-hash", "reuse@example.com"));
+        Product product = productRepository.save(new Product("IDEM-2", "Reused", "", new BigDecimal("1.00"), 10, "test", user));
+        orderService.createOrder(List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE)), user, "key-1");
+
+        IdempotencyKeyConflictException e = assertThrows(IdempotencyKeyConflictException.class, () ->
+            orderService.createOrder(List.of(new OrderItemRequest(product.getId(), 2, BigDecimal.ONE)), user, "key-1"));
+        assertFalse(e.isInProgress());
+        assertEquals(9, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+}
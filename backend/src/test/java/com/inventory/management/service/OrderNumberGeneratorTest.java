@@ -0,0 +1,58 @@
+package com.inventory.management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderNumberGeneratorTest {
+
+    private static final Clock FIXED = Clock.fixed(Instant.parse("2026-06-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    public void numbersIncreaseWithinAndPastOneMillisecond() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, FIXED);
+        Set<String> seen = new HashSet<>();
+        String previous = "";
+        // More than one millisecond's worth of sequence numbers on a clock that never moves
+        for (int i = 0; i < 10_000; i++) {
+            String number = generator.next();
+            assertEquals(17, number.length());
+            assertTrue(number.compareTo(previous) > 0, number + " should sort after " + previous);
+            assertTrue(seen.add(number));
+            previous = number;
+        }
+    }
+
+    @Test
+    public void nodesNeverCollide() {
+        OrderNumberGenerator first = new OrderNumberGenerator(1, FIXED);
+        OrderNumberGenerator second = new OrderNumberGenerator(2, FIXED);
+        for (int i = 0; i < 100; i++) {
+            assertNotEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    public void rejectsNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(1024, FIXED));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(-1, FIXED));
+    }
+
+    @Test
+    public void podOrdinalsOffsetTheConfiguredNodeId() {
+        assertEquals(515, OrderNumberGenerator.checkedNodeId(512, 3));
+        assertThrows(IllegalArgumentException.class, () -> OrderNumberGenerator.checkedNodeId(1020, 4));
+        assertThrows(IllegalArgumentException.class, () -> OrderNumberGenerator.checkedNodeId(5, -1));
+        assertThrows(IllegalArgumentException.class, () -> OrderNumberGenerator.checkedNodeId(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> OrderNumberGenerator.checkedNodeId(1, Integer.MAX_VALUE));
+    }
+}
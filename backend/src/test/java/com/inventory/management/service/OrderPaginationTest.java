@@ -0,0 +1,110 @@
+package com.inventory.management.service;
+
+import com.inventory.management.config.AuthenticatedUser;
+import com.inventory.management.controller.OrderController;
+import com.inventory.management.dto.OrderCursor;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.dto.OrderPage;
+import com.inventory.management.dto.OrderView;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderPaginationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderController orderController;
+
+    @AfterEach
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void pagesCoverEveryOrderOnceNewestFirst() {
+        User user = userRepository.save(new User("pager", "not-a-hash", "pager@example.com"));
+        Product product = productRepository.save(new Product("PAGE-1", "Paged", "", BigDecimal.ONE, 100, "test", user));
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(orderService.createOrder(List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE)), user).getId());
+        }
+
+        List<OrderView> seen = new ArrayList<>();
+        OrderCursor cursor = OrderCursor.START;
+        int pages = 0;
+        while (true) {
+            OrderPage page = orderService.getOrdersByUser(user, cursor, 3);
+            seen.addAll(page.orders());
+            pages++;
+            page.orders().forEach(order -> {
+                assertEquals(1, order.orderItems().size());
+                assertEquals("PAGE-1", order.orderItems().get(0).product().sku());
+            });
+            if (page.nextCursor() == null) {
+                break;
+            }
+            cursor = OrderCursor.decode(page.nextCursor());
+        }
+
+        assertEquals(3, pages);
+        assertEquals(created.stream().sorted().toList(), seen.stream().map(OrderView::id).sorted().toList());
+        for (int i = 1; i < seen.size(); i++) {
+            OrderView newer = seen.get(i - 1);
+            OrderView older = seen.get(i);
+            assertTrue(Comparator.comparing(OrderView::orderDate).thenComparing(OrderView::id).compare(newer, older) > 0);
+        }
+    }
+
+    @Test
+    public void malformedCursorsAreRejected() {
+        User user = userRepository.save(new User("pagerbad", "not-a-hash", "pagerbad@example.com"));
+        AuthenticatedUser principal = AuthenticatedUser.of(user);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        String cursor = "not-a-cursor";
+        assertEquals(HttpStatus.BAD_REQUEST, orderController.getAllOrders(cursor, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, orderController.getOrdersByUser(cursor, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, orderController.getRecentOrders(30, cursor, null).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, orderController.getOrdersByStatus("PENDING", cursor, null).getStatusCode());
+    }
+
+    @Test
+    public void emptyStatusPageHasNoCursor() {
+        User user = userRepository.save(new User("pagerempty", "not-a-hash", "pagerempty@example.com"));
+
+        OrderPage page = orderService.getOrdersByStatusAndUser("SHIPPED", user, OrderCursor.START, 10);
+
+        assertTrue(page.orders().isEmpty());
+        assertNull(page.nextCursor());
+    }
+}
@@ -0,0 +1,197 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.InventoryHistory;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.InventoryHistoryRepository;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderServiceConcurrencyTest {
+    
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 10;
+    private static final int INITIAL_STOCK = 50;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private InventoryHistoryRepository inventoryHistoryRepository;
+    
+    @Test
+    public void concurrentOrdersNeverOversell() throws Exception {
+        runContendedOrders(orderService, userRepository, productRepository, inventoryHistoryRepository);
+    }
+    
+    @Test
+    public void nonPositiveQuantitiesNeverReachTheStockUpdate() {
+        User user = userRepository.save(new User("negative", "not-a-hash", "negative@example.com"));
+        Product product = productRepository.save(new Product("NEG-1", "Refilled", "", BigDecimal.ONE, 5, "test", user));
+        
+        for (int quantity : new int[] {0, -3}) {
+            List<OrderItemRequest> items = List.of(new OrderItemRequest(product.getId(), quantity, BigDecimal.ONE));
+            RuntimeException e = assertThrows(RuntimeException.class, () -> orderService.createOrder(items, user));
+            assertEquals("Quantity must be positive for product ID: " + product.getId(), e.getMessage());
+        }
+        assertEquals(5, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+    
+    @Nested
+    @TestPropertySource(properties = {
+        "app.orders.reservation-ledger.enabled=true",
+        "app.orders.reservation-ledger.stripes=4"
+    })
+    class WithReservationLedger {
+        
+        @Autowired
+        private StockReservationLedger reservationLedger;
+        
+        @Autowired
+        private OrderService ledgerOrderService;
+        
+        @Autowired
+        private UserRepository ledgerUserRepository;
+        
+        @Autowired
+        private ProductRepository ledgerProductRepository;
+        
+        @Autowired
+        private InventoryHistoryRepository ledgerHistoryRepository;
+        
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+        
+        @Test
+        public void concurrentOrdersNeverOversell() throws Exception {
+            // The enclosing instance is wired from the default context, so pass this context's beans
+            runContendedOrders(ledgerOrderService, ledgerUserRepository, ledgerProductRepository, ledgerHistoryRepository);
+            
+            long grouped = reservationLedger.getStats().stream()
+                    .mapToLong(StockReservationLedger.ProductStats::flushedLines)
+                    .sum();
+            assertEquals(2 * INITIAL_STOCK, grouped);
+        }
+        
+        @Test
+        public void databaseErrorsGiveBackWhatWasReserved() {
+            User user = ledgerUserRepository.save(new User("ledgerfail", "not-a-hash", "ledgerfail@example.com"));
+            Product first = ledgerProductRepository.save(new Product("FAIL-1", "Taken", "", BigDecimal.ONE, 5, "test", user));
+            Product second = ledgerProductRepository.save(new Product("FAIL-2", "Failing", "", BigDecimal.ONE, 5, "test", user));
+            AtomicBoolean failing = new AtomicBoolean(true);
+            ProductRepository flaky = (ProductRepository) Proxy.newProxyInstance(ProductRepository.class.getClassLoader(),
+                new Class<?>[]{ProductRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("decrementStockById") && args[0].equals(second.getId()) && failing.get()) {
+                        throw new QueryTimeoutException("simulated");
+                    }
+                    try {
+                        return method.invoke(ledgerProductRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+            StockReservationLedger ledger = new StockReservationLedger(true, 4, flaky, transactionManager, new SimpleMeterRegistry());
+            Map<Long, Integer> everything = new TreeMap<>(Map.of(first.getId(), 5, second.getId(), 5));
+            
+            assertThrows(QueryTimeoutException.class, () -> ledger.reserve(new TreeMap<>(Map.of(first.getId(), 2, second.getId(), 3)), user.getId()));
+            assertEquals(5, ledgerProductRepository.findById(first.getId()).orElseThrow().getQuantity());
+            assertEquals(5, ledgerProductRepository.findById(second.getId()).orElseThrow().getQuantity());
+            
+            // Nothing is held back in memory either
+            failing.set(false);
+            StockReservationLedger.Reservation reservation = ledger.reserve(everything, user.getId());
+            assertEquals(Map.of(first.getId(), 0, second.getId(), 0), reservation.stockAfter());
+        }
+    }
+    
+    private static void runContendedOrders(OrderService orderService, UserRepository userRepository,
+                                           ProductRepository productRepository,
+                                           InventoryHistoryRepository inventoryHistoryRepository) throws Exception {
+        User user = userRepository.save(new User("stress", "not-a-hash", "stress@example.com"));
+        Product contended = productRepository.save(new Product("HOT-1", "Contended", "", new BigDecimal("1.00"), INITIAL_STOCK, "test", user));
+        Product other = productRepository.save(new Product("COLD-1", "Uncontended", "", new BigDecimal("1.00"), THREADS * ORDERS_PER_THREAD, "test", user));
+        
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    // Both lines in one order: the uncontended product is rolled back whenever the hot one runs out
+                    List<OrderItemRequest> items = List.of(
+                        new OrderItemRequest(other.getId(), 1, BigDecimal.ONE),
+                        new OrderItemRequest(contended.getId(), 1, BigDecimal.ONE));
+                    try {
+                        orderService.createOrder(items, user);
+                        placed.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        assertEquals(contended.getId(), e.getShortfalls().get(0).productId());
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        int contendedLeft = productRepository.findById(contended.getId()).orElseThrow().getQuantity();
+        int otherLeft = productRepository.findById(other.getId()).orElseThrow().getQuantity();
+        
+        assertEquals(INITIAL_STOCK, placed.get());
+        assertEquals(THREADS * ORDERS_PER_THREAD - INITIAL_STOCK, rejected.get());
+        assertEquals(0, contendedLeft);
+        assertEquals(THREADS * ORDERS_PER_THREAD - placed.get(), otherLeft);
+        // One row per unit sold, each starting where another left off: no two orders saw the same stock
+        List<Integer> previousQuantities = inventoryHistoryRepository.findAll().stream()
+                .filter(h -> h.getProduct().getId().equals(contended.getId()))
+                .peek(h -> assertEquals(h.getPreviousQuantity() - 1, h.getNewQuantity()))
+                .map(InventoryHistory::getPreviousQuantity)
+                .sorted()
+                .toList();
+        assertEquals(IntStream.rangeClosed(1, INITIAL_STOCK).boxed().toList(), previousQuantities);
+    }
+}
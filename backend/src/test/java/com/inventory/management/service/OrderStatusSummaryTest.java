@@ -0,0 +1,62 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.dto.OrderStatusSummary;
+import com.inventory.management.model.Order;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "app.orders.status-summary.live-counters=true"
+})
+public class OrderStatusSummaryTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderStatusSummaryService summaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void liveCountersFollowPlacementAndStatusChanges() {
+        User user = userRepository.save(new User("summary", "not-a-hash", "summary@example.com"));
+        Product product = productRepository.save(new Product("SUM-1", "Counted", "", BigDecimal.ONE, 100, "test", user));
+        List<OrderItemRequest> items = List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE));
+
+        Order first = orderService.createOrder(items, user);
+        assertEquals(1L, summaryService.getSummary(user).counts().get("PENDING"));
+
+        orderService.createOrder(items, user);
+        orderService.createOrder(items, user);
+        OrderStatusSummary afterCreate = summaryService.getSummary(user);
+        assertEquals(3L, afterCreate.counts().get("PENDING"));
+        assertEquals(3L, afterCreate.total());
+
+        orderService.updateOrderStatus(List.of(first.getId()), "SHIPPED", user);
+        OrderStatusSummary afterShip = summaryService.getSummary(user);
+        assertEquals(2L, afterShip.counts().get("PENDING"));
+        assertEquals(1L, afterShip.counts().get("SHIPPED"));
+        assertEquals(0L, afterShip.counts().get("DELIVERED"));
+        assertEquals(3L, afterShip.total());
+    }
+}
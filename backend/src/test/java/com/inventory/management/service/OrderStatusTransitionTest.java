@@ -0,0 +1,70 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.dto.OrderStatusUpdateResult;
+import com.inventory.management.dto.OrderStatusView;
+import com.inventory.management.model.Order;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.OrderRepository;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class OrderStatusTransitionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    public void bulkTransitionMovesOnlyAllowedOwnedOrders() {
+        User user = userRepository.save(new User("warehouse", "not-a-hash", "warehouse@example.com"));
+        User other = userRepository.save(new User("elsewhere", "not-a-hash", "elsewhere@example.com"));
+        Product product = productRepository.save(new Product("SHIP-1", "Shipped", "", BigDecimal.ONE, 100, "test", user));
+        Product otherProduct = productRepository.save(new Product("SHIP-2", "Foreign", "", BigDecimal.ONE, 100, "test", other));
+        List<OrderItemRequest> items = List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE));
+
+        Order first = orderService.createOrder(items, user);
+        Order second = orderService.createOrder(items, user);
+        Order delivered = orderService.createOrder(items, user);
+        Order foreign = orderService.createOrder(List.of(new OrderItemRequest(otherProduct.getId(), 1, BigDecimal.ONE)), other);
+        orderService.updateOrderStatus(List.of(delivered.getId()), "SHIPPED", user);
+        orderService.updateOrderStatus(List.of(delivered.getId()), "DELIVERED", user);
+
+        OrderStatusUpdateResult result = orderService.updateOrderStatus(
+            List.of(first.getId(), second.getId(), delivered.getId(), foreign.getId()), "shipped", user);
+
+        assertEquals("SHIPPED", result.status());
+        assertEquals(2, result.updated());
+        assertEquals(List.of(new OrderStatusView(delivered.getId(), "DELIVERED")), result.rejected());
+        assertEquals(List.of(foreign.getId()), result.notFound());
+        assertEquals("SHIPPED", orderRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals("PENDING", orderRepository.findById(foreign.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void unknownStatusIsRejected() {
+        User user = userRepository.save(new User("typo", "not-a-hash", "typo@example.com"));
+        assertThrows(IllegalArgumentException.class, () -> orderService.updateOrderStatus(List.of(1L), "LOST", user));
+    }
+}
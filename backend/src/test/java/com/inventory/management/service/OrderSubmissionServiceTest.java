@@ -0,0 +1,148 @@
+package com.inventory.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.management.dto.CreateOrderRequest;
+import com.inventory.management.dto.OrderItemRequest;
+import com.inventory.management.model.OrderSubmission;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.OrderSubmissionRepository;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "app.orders.async.enabled=true",
+    "app.orders.async.poll-interval-ms=20"
+})
+public class OrderSubmissionServiceTest {
+
+    @Autowired
+    private OrderSubmissionService submissionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderSubmissionRepository submissionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void queuedOrdersArePlacedUntilStockRunsOut() throws Exception {
+        User user = userRepository.save(new User("async", "not-a-hash", "async@example.com"));
+        Product product = productRepository.save(new Product("ASYNC-1", "Queued", "", new BigDecimal("1.00"), 5, "test", user));
+
+        List<OrderSubmission> submissions = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            submissions.add(submissionService.enqueue(
+                List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE)), user, null));
+        }
+
+        int completed = 0;
+        int failed = 0;
+        for (OrderSubmission queued : submissions) {
+            OrderSubmission submission = awaitFinished(queued.getId(), user);
+            if (OrderSubmission.COMPLETED.equals(submission.getStatus())) {
+                assertNotNull(submission.getOrderId());
+                completed++;
+            } else {
+                assertTrue(submission.getError().startsWith("Insufficient stock"), submission.getError());
+                failed++;
+            }
+        }
+        assertEquals(5, completed);
+        assertEquals(3, failed);
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void repeatedKeyReturnsFirstSubmission() {
+        User user = userRepository.save(new User("asynckey", "not-a-hash", "asynckey@example.com"));
+        Product product = productRepository.save(new Product("ASYNC-2", "Keyed", "", new BigDecimal("1.00"), 5, "test", user));
+        List<OrderItemRequest> items = List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE));
+
+        OrderSubmission first = submissionService.enqueue(items, user, "submit-1");
+        OrderSubmission retry = submissionService.enqueue(items, user, "submit-1");
+
+        assertEquals(first.getId(), retry.getId());
+    }
+
+    @Test
+    public void claimsTakenOverPlaceNothing() throws Exception {
+        User user = userRepository.save(new User("asyncslow", "not-a-hash", "asyncslow@example.com"));
+        Product product = productRepository.save(new Product("ASYNC-3", "Contended", "", new BigDecimal("1.00"), 5, "test", user));
+        // Claimed by a slow worker, requeued as stale and claimed again by another one
+        OrderSubmission submission = claimed(user, product, "second-claim", LocalDateTime.now(), 2);
+
+        submissionService.placeForUser(user.getId(), List.of(submission.getId()), "first-claim");
+        assertEquals(OrderSubmission.PROCESSING, submissionRepository.findById(submission.getId()).orElseThrow().getStatus());
+        assertEquals(5, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+
+        submissionService.placeForUser(user.getId(), List.of(submission.getId()), "second-claim");
+        submissionService.placeForUser(user.getId(), List.of(submission.getId()), "second-claim");
+        assertEquals(OrderSubmission.COMPLETED, submissionRepository.findById(submission.getId()).orElseThrow().getStatus());
+        assertEquals(4, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    public void staleClaimsFailOnceAttemptsAreUsedUp() throws Exception {
+        User user = userRepository.save(new User("asyncstale", "not-a-hash", "asyncstale@example.com"));
+        Product product = productRepository.save(new Product("ASYNC-4", "Abandoned", "", new BigDecimal("1.00"), 5, "test", user));
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(1);
+        OrderSubmission exhausted = claimed(user, product, "crashed-1", longAgo, 3);
+        OrderSubmission retried = claimed(user, product, "crashed-2", longAgo, 1);
+
+        submissionService.maintain();
+
+        OrderSubmission failedSubmission = awaitFinished(exhausted.getId(), user);
+        assertEquals(OrderSubmission.FAILED, failedSubmission.getStatus());
+        assertTrue(failedSubmission.getError().contains("3 attempts"), failedSubmission.getError());
+        assertEquals(OrderSubmission.COMPLETED, awaitFinished(retried.getId(), user).getStatus());
+        assertEquals(4, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    private OrderSubmission claimed(User user, Product product, String token, LocalDateTime claimedAt, int attempts)
+            throws Exception {
+        String payload = objectMapper.writeValueAsString(
+            new CreateOrderRequest(List.of(new OrderItemRequest(product.getId(), 1, BigDecimal.ONE))));
+        OrderSubmission submission = new OrderSubmission(user.getId(), null, null, payload);
+        submission.setStatus(OrderSubmission.PROCESSING);
+        submission.setClaimToken(token);
+        submission.setClaimedAt(claimedAt);
+        submission.setAttempts(attempts);
+        return submissionRepository.save(submission);
+    }
+
+    private OrderSubmission awaitFinished(Long id, User user) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            OrderSubmission submission = submissionService.getSubmission(id, user).orElseThrow();
+            if (!OrderSubmission.QUEUED.equals(submission.getStatus())
+                    && !OrderSubmission.PROCESSING.equals(submission.getStatus())) {
+                return submission;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Submission " + id + " was not processed in time");
+    }
+}
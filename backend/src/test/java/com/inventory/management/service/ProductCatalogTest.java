@@ -0,0 +1,86 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.ProductCursor;
+import com.inventory.management.dto.ProductFilter;
+import com.inventory.management.dto.ProductPage;
+import com.inventory.management.dto.ProductSort;
+import com.inventory.management.dto.ProductView;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductCatalogTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void pagesVisitEveryProductOnceInSortOrder() {
+        User user = userRepository.save(new User("catalog", "not-a-hash", "catalog@example.com"));
+        // Quantities repeat so that the id tiebreaker decides within a value
+        for (int i = 0; i < 7; i++) {
+            productRepository.save(new Product("CAT-" + i, "Item " + i, "", BigDecimal.ONE, 1 + i % 3, "test", user));
+        }
+
+        List<String> byName = collect(user, ProductFilter.all(), ProductSort.NAME, false, 3);
+        assertEquals(List.of("Item 0", "Item 1", "Item 2", "Item 3", "Item 4", "Item 5", "Item 6"), byName);
+
+        List<String> byQuantityDescending = collect(user, ProductFilter.all(), ProductSort.QUANTITY, true, 2);
+        assertEquals(List.of("Item 5", "Item 2", "Item 4", "Item 1", "Item 6", "Item 3", "Item 0"), byQuantityDescending);
+
+        List<String> lowStock = collect(user, ProductFilter.lowStock(1), ProductSort.QUANTITY, false, 2);
+        assertEquals(List.of("Item 0", "Item 3", "Item 6"), lowStock);
+    }
+
+    @Test
+    public void cursorIsTiedToItsSort() {
+        User user = userRepository.save(new User("catalogsort", "not-a-hash", "catalogsort@example.com"));
+        productRepository.save(new Product("CAT-A", "A", "", BigDecimal.ONE, 1, "test", user));
+        productRepository.save(new Product("CAT-B", "B", "", BigDecimal.ONE, 2, "test", user));
+
+        ProductPage first = productService.getProductPage(user, ProductFilter.all(), ProductSort.NAME, false, null, 1);
+        String cursor = first.nextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(cursor, ProductSort.QUANTITY, false));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode(cursor, ProductSort.NAME, true));
+        assertThrows(IllegalArgumentException.class, () -> ProductCursor.decode("not a cursor", ProductSort.NAME, false));
+
+        ProductPage second = productService.getProductPage(user, ProductFilter.all(), ProductSort.NAME, false,
+            ProductCursor.decode(cursor, ProductSort.NAME, false), 1);
+        assertEquals("B", second.products().get(0).name());
+        assertNull(second.nextCursor());
+    }
+
+    private List<String> collect(User user, ProductFilter filter, ProductSort sort, boolean descending, int limit) {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPage page = productService.getProductPage(user, filter, sort, descending,
+                ProductCursor.decode(cursor, sort, descending), limit);
+            page.products().stream().map(ProductView::name).forEach(names::add);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return names;
+    }
+}
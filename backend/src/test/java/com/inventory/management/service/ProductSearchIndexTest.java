@@ -0,0 +1,129 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.ProductPage;
+import com.inventory.management.dto.ProductView;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "app.products.search-index.enabled=true"
+})
+public class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void resultsAreRankedAndFollowProductChanges() {
+        User user = userRepository.save(new User("searcher", "not-a-hash", "searcher@example.com"));
+        Product cable = productService.createProduct(
+            new Product("CBL-100", "Braided cable", "Two metres", BigDecimal.ONE, 5, "test", user), user);
+        productService.createProduct(
+            new Product("ADP-200", "Cable adapter", "", BigDecimal.ONE, 5, "test", user), user);
+        productService.createProduct(
+            new Product("HUB-300", "USB hub", "Ships with a cable", BigDecimal.ONE, 5, "test", user), user);
+
+        // Built on first search: name prefix, then word start, then description
+        assertEquals(List.of("Cable adapter", "Braided cable", "USB hub"), names(search(user, "cable")));
+        assertEquals(List.of("Braided cable"), names(search(user, "cbl-100")));
+        assertEquals(List.of("Braided cable"), names(search(user, "metres cable")));
+
+        // Kept current after the index exists
+        productService.createProduct(new Product("CBL-400", "Patch lead", "", BigDecimal.ONE, 5, "test", user), user);
+        assertEquals(List.of("Patch lead"), names(search(user, "lead")));
+
+        Product renamed = new Product("CBL-100", "Braided cord", "Two metres", BigDecimal.ONE, 5, "test", user);
+        productService.updateProduct(cable.getId(), renamed, user);
+        assertEquals(List.of("Cable adapter", "USB hub"), names(search(user, "cable")));
+        assertEquals(List.of("Braided cord"), names(search(user, "cord")));
+
+        productService.deleteProduct(cable.getId(), user);
+        assertTrue(search(user, "cord").products().isEmpty());
+    }
+
+    @Test
+    public void pagesFollowTheRanking() {
+        User user = userRepository.save(new User("searchpages", "not-a-hash", "searchpages@example.com"));
+        for (int i = 0; i < 5; i++) {
+            productService.createProduct(
+                new Product("WID-" + i, "Widget " + i, "", BigDecimal.ONE, 5, "test", user), user);
+        }
+
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPage page = productService.searchProducts(user, "widget", cursor, 2);
+            names.addAll(names(page));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("Widget 0", "Widget 1", "Widget 2", "Widget 3", "Widget 4"), names);
+        assertNull(productService.searchProducts(user, "widget 4", null, 2).nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> productService.searchProducts(user, "widget", "not a cursor", 2));
+    }
+
+    @Test
+    public void deletedProductsCountUntilTheIndexIsCompacted() {
+        User user = userRepository.save(new User("searchcompact", "not-a-hash", "searchcompact@example.com"));
+        List<Product> bolts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bolts.add(productService.createProduct(
+                new Product("BLT-" + i, "Bolt " + i, "", BigDecimal.ONE, 5, "test", user), user));
+        }
+        double before = indexedProducts();
+        assertEquals(8, search(user, "bolt").products().size());
+        assertEquals(before + 8, indexedProducts());
+
+        // Two of eight slots empty: still held against the budget
+        productService.deleteProduct(bolts.get(0).getId(), user);
+        productService.deleteProduct(bolts.get(3).getId(), user);
+        assertEquals(before + 8, indexedProducts());
+
+        // A third passes a quarter and the index is renumbered
+        productService.deleteProduct(bolts.get(6).getId(), user);
+        assertEquals(before + 5, indexedProducts());
+        assertEquals(List.of("Bolt 1", "Bolt 2", "Bolt 4", "Bolt 5", "Bolt 7"), names(search(user, "bolt")));
+        assertEquals(List.of("Bolt 7"), names(search(user, "bolt 7")));
+        assertEquals(List.of("Bolt 5"), names(search(user, "blt-5")));
+
+        productService.createProduct(new Product("BLT-8", "Bolt 8", "", BigDecimal.ONE, 5, "test", user), user);
+        assertEquals(List.of("Bolt 8"), names(search(user, "blt-8")));
+        assertEquals(before + 6, indexedProducts());
+    }
+
+    private double indexedProducts() {
+        return meterRegistry.get("products.search.index.products").gauge().value();
+    }
+
+    private ProductPage search(User user, String text) {
+        return productService.searchProducts(user, text, null, 10);
+    }
+
+    private static List<String> names(ProductPage page) {
+        return page.products().stream().map(ProductView::name).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.ProductSuggestion;
+import com.inventory.management.model.Product;
+import com.inventory.management.model.User;
+import com.inventory.management.repository.ProductRepository;
+import com.inventory.management.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductSuggestIndexTest {
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void prefixesMatchNamesAndSkusAndFollowChanges() {
+        User user = userRepository.save(new User("suggest", "not-a-hash", "suggest@example.com"));
+        Product bolt = productService.createProduct(new Product("BLT-1", "Bolt", "", BigDecimal.ONE, 5, "test", user), user);
+        productService.createProduct(new Product("BLT-2", "Bolt cutter", "", BigDecimal.ONE, 5, "test", user), user);
+        productService.createProduct(new Product("BRK-1", "Bracket", "", BigDecimal.ONE, 5, "test", user), user);
+
+        assertEquals(List.of("Bolt", "Bolt cutter"), names(suggestIndex.suggest(user, "BO", 10)));
+        assertEquals(List.of("Bolt", "Bolt cutter", "Bracket"), names(suggestIndex.suggest(user, "b", 10)));
+        assertEquals(List.of("Bolt cutter"), names(suggestIndex.suggest(user, "blt-2", 10)));
+        assertEquals(List.of("Bolt"), names(suggestIndex.suggest(user, "b", 1)));
+        assertTrue(suggestIndex.suggest(user, "bolts", 10).isEmpty());
+
+        productService.createProduct(new Product("BOX-1", "Box", "", BigDecimal.ONE, 5, "test", user), user);
+        assertEquals(List.of("Bolt", "Bolt cutter", "Box"), names(suggestIndex.suggest(user, "bo", 10)));
+
+        productService.updateProduct(bolt.getId(), new Product("NUT-1", "Nut", "", BigDecimal.ONE, 5, "test", user), user);
+        assertEquals(List.of("Bolt cutter", "Box"), names(suggestIndex.suggest(user, "bo", 10)));
+        assertEquals(List.of("Nut"), names(suggestIndex.suggest(user, "nut-", 10)));
+
+        productService.deleteProduct(bolt.getId(), user);
+        assertTrue(suggestIndex.suggest(user, "nu", 10).isEmpty());
+    }
+
+    @Test
+    public void usersBeyondTheBudgetAreServedFromTheDatabase() {
+        User user = userRepository.save(new User("suggestbig", "not-a-hash", "suggestbig@example.com"));
+        productRepository.save(new Product("WSH-1", "Washer", "", BigDecimal.ONE, 5, "test", user));
+        productRepository.save(new Product("WSH-2", "Washer_large", "", BigDecimal.ONE, 5, "test", user));
+        ProductSuggestIndex tiny = new ProductSuggestIndex(1, 30, productRepository, transactionManager, new SimpleMeterRegistry());
+
+        assertEquals(List.of("Washer", "Washer_large"), names(tiny.suggest(user, "wash", 10)));
+        assertEquals(List.of("Washer_large"), names(tiny.suggest(user, "washer_", 10)));
+    }
+
+    private static List<String> names(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::name).toList();
+    }
+}
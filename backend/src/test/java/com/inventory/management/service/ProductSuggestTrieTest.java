@@ -0,0 +1,51 @@
+package com.inventory.management.service;
+
+import com.inventory.management.dto.ProductSuggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ProductSuggestTrieTest {
+
+    @Test
+    public void keysSharingPrefixesSplitAndMergeEdges() {
+        ProductSuggestIndex.UserTrie trie = new ProductSuggestIndex.UserTrie();
+        trie.put(new ProductSuggestion(1L, "K-1", "Bolt"));
+        // Splits "bolt" at "bol", then "bolt" at the end of the key
+        trie.put(new ProductSuggestion(2L, "K-2", "Bolster"));
+        trie.put(new ProductSuggestion(3L, "K-3", "Bolt cutter"));
+        trie.put(new ProductSuggestion(4L, "K-4", "Bo"));
+        assertEquals(8, trie.keys);
+
+        assertEquals(List.of("Bo", "Bolster", "Bolt", "Bolt cutter"), names(trie.suggest("b", 10)));
+        assertEquals(List.of("Bolt", "Bolt cutter"), names(trie.suggest("bolt", 10)));
+        assertEquals(List.of("Bolster"), names(trie.suggest("bols", 10)));
+        assertEquals(List.of("Bolt cutter"), names(trie.suggest("k-3", 10)));
+        assertTrue(trie.suggest("bolx", 10).isEmpty());
+
+        // Emptied nodes with one child merge back into it
+        trie.remove(4L);
+        trie.remove(2L);
+        assertEquals(List.of("Bolt", "Bolt cutter"), names(trie.suggest("bo", 10)));
+        assertEquals(List.of("Bolt", "Bolt cutter"), names(trie.suggest("bolt", 10)));
+        assertTrue(trie.suggest("bols", 10).isEmpty());
+
+        trie.remove(1L);
+        assertEquals(List.of("Bolt cutter"), names(trie.suggest("bolt", 10)));
+        trie.remove(3L);
+        assertEquals(0, trie.keys);
+        assertTrue(trie.suggest("b", 10).isEmpty());
+        assertTrue(trie.suggest("k", 10).isEmpty());
+
+        // Still usable once emptied
+        trie.put(new ProductSuggestion(5L, "K-5", "Bolt"));
+        assertEquals(List.of("Bolt"), names(trie.suggest("bo", 10)));
+    }
+
+    private static List<String> names(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::name).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.management.service;
+
+import com.inventory.management.config.AuthenticatedUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UserPrincipalCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<String, AuthenticatedUser> loader = username ->
+            new AuthenticatedUser((long) loads.incrementAndGet(), username, "USER", 0);
+
+    @Test
+    public void servesRepeatedLookupsFromTheCache() {
+        UserPrincipalCache cache = new UserPrincipalCache(10, 60, new SimpleMeterRegistry(), clock);
+
+        AuthenticatedUser first = cache.get("alice", loader);
+        assertSame(first, cache.get("alice", loader));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void reloadsEntriesAfterTheirTtl() {
+        UserPrincipalCache cache = new UserPrincipalCache(10, 60, new SimpleMeterRegistry(), clock);
+
+        cache.get("alice", loader);
+        clock.advanceSeconds(59);
+        cache.get("alice", loader);
+        assertEquals(1, loads.get());
+
+        clock.advanceSeconds(1);
+        cache.get("alice", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedEntryWhenFull() {
+        UserPrincipalCache cache = new UserPrincipalCache(2, 60, new SimpleMeterRegistry(), clock);
+
+        cache.get("alice", loader);
+        cache.get("bob", loader);
+        cache.get("alice", loader);
+        cache.get("carol", loader);
+        assertEquals(2, cache.size());
+
+        cache.get("alice", loader);
+        assertEquals(3, loads.get());
+        cache.get("bob", loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void invalidatedEntriesAreReloaded() {
+        UserPrincipalCache cache = new UserPrincipalCache(10, 60, new SimpleMeterRegistry(), clock);
+
+        cache.get("alice", loader);
+        cache.invalidate("alice");
+        cache.get("alice", loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+-- Must be run in inventory_db, once, before deploying the backend that uses pooled sequence ids.
+--
+-- Tables created by earlier versions have identity (or serial) id columns. The entities now take
+-- ids from <table>_id_seq in blocks of 50 (allocationSize = 50), so each sequence must increment
+-- by 50 and the id columns must no longer generate their own values. Each sequence is positioned
+-- so that its next value hands out the block right after the current maximum id.
+
+DO $$
+DECLARE
+    t text;
+    seq text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['users', 'products', 'orders', 'order_items', 'inventory_history'] LOOP
+        seq := t || '_id_seq';
+
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t
+                     AND column_name = 'id' AND is_identity = 'YES') THEN
+            -- Drops the identity's own sequence as well
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY', t);
+        ELSE
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP DEFAULT', t);
+        END IF;
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I', seq);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50 OWNED BY %I.id', seq, t);
+        EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 50 FROM %I), false)', seq, t);
+    END LOOP;
+END $$;
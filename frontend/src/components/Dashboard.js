@@ -14,26 +14,82 @@ const Dashboard = () => {
 
   useEffect(() => {
     fetchDashboardData();
+    return subscribeToLowStock();
   }, []);
 
+  // EventSource cannot send the Authorization header, so the stream is read through fetch
+  const subscribeToLowStock = () => {
+    const controller = new AbortController();
+    const listen = async () => {
+      // Same backend as every axios call, which may not be this page's origin
+      const baseURL = (axios.defaults.baseURL || '').replace(/\/+$/, '');
+      const response = await fetch(`${baseURL}/api/products/low-stock/stream`, {
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+        signal: controller.signal
+      });
+      if (!response.ok) {
+        return;
+      }
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) {
+          return;
+        }
+        buffer += value;
+        const events = buffer.split('\n\n');
+        buffer = events.pop();
+        events.forEach(handleLowStockEvent);
+      }
+    };
+    listen().catch(error => {
+      if (error.name !== 'AbortError') {
+        console.error('Low stock stream closed:', error);
+      }
+    });
+    return () => controller.abort();
+  };
+
+  const handleLowStockEvent = (event) => {
+    let name = 'message';
+    let data = '';
+    event.split('\n').forEach(line => {
+      if (line.startsWith('event:')) {
+        name = line.slice(6).trim();
+      } else if (line.startsWith('data:')) {
+        data += line.slice(5);
+      }
+    });
+    if (!data) {
+      return;
+    }
+    const payload = JSON.parse(data);
+    if (name === 'snapshot') {
+      setStats(stats => ({ ...stats, lowStockProducts: payload.length }));
+    } else if (name === 'crossing') {
+      const change = payload.direction === 'ENTERED' ? 1 : -1;
+      setStats(stats => ({ ...stats, lowStockProducts: Math.max(0, stats.lowStockProducts + change) }));
+    }
+  };
+
   const fetchDashboardData = async () => {
     try {
       setLoading(true);
       setError('');
 
-      const [productsRes, ordersRes] = await Promise.all([
-        axios.get('/api/products'),
-        axios.get('/api/orders')
+      const [productsRes, ordersRes, summaryRes, lowStockRes] = await Promise.all([
+        axios.get('/api/products', { params: { limit: 1000 } }),
+        axios.get('/api/orders', { params: { limit: 5 } }),
+        axios.get('/api/orders/summary'),
+        axios.get('/api/products/low-stock')
       ]);
 
-      const products = productsRes.data;
-      const orders = ordersRes.data;
-
       setStats({
-        totalProducts: products.length,
-        totalOrders: orders.length,
-        lowStockProducts: products.filter(p => p.quantity < 10).length,
-        recentOrders: orders.slice(0, 5)
+        totalProducts: productsRes.data.length,
+        totalOrders: summaryRes.data.total,
+        lowStockProducts: lowStockRes.data.length,
+        recentOrders: ordersRes.data
       });
     } catch (error) {
       console.error('Error fetching dashboard data:', error);
@@ -36,7 +36,8 @@ const History = () => {
 
   const fetchProducts = async () => {
     try {
-      const response = await axios.get('/api/products');
+      // Product picker: one page of the largest size the catalog serves
+      const response = await axios.get('/api/products', { params: { limit: 1000 } });
       setProducts(response.data);
     } catch (error) {
       console.error('Error fetching products:', error);
@@ -155,7 +156,7 @@ const History = () => {
                 {history.map((entry) => (
                   <tr key={entry.id}>
                     <td>{new Date(entry.createdAt).toLocaleString()}</td>
-                    <td>{entry.product?.name || 'N/A'}</td>
+                    <td>{entry.productName || 'N/A'}</td>
                     <td>
                       <span className={`badge bg-${getActionBadgeColor(entry.action)}`}>
                         {entry.action}
@@ -5,6 +5,7 @@ import axios from 'axios';
 
 const Order = () => {
   const [orders, setOrders] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [products, setProducts] = useState([]);
   const [showModal, setShowModal] = useState(false);
   const [loading, setLoading] = useState(true);
@@ -19,11 +20,12 @@ const Order = () => {
     fetchProducts();
   }, []);
 
-  const fetchOrders = async () => {
+  const fetchOrders = async (cursor) => {
     try {
       setError('');
-      const response = await axios.get('/api/orders');
-      setOrders(response.data);
+      const response = await axios.get('/api/orders', { params: cursor ? { cursor } : {} });
+      setOrders(previous => (cursor ? [...previous, ...response.data] : response.data));
+      setNextCursor(response.headers['x-next-cursor'] || null);
     } catch (error) {
       console.error('Error fetching orders:', error);
       setError('Error fetching orders. Please try again.');
@@ -32,7 +34,8 @@ const Order = () => {
 
   const fetchProducts = async () => {
     try {
-      const response = await axios.get('/api/products');
+      // Product picker: one page of the largest size the catalog serves
+      const response = await axios.get('/api/products', { params: { limit: 1000 } });
       setProducts(response.data);
     } catch (error) {
       console.error('Error fetching products:', error);
@@ -183,6 +186,13 @@ const Order = () => {
           ) : (
             <p className="text-muted text-center">No orders found. Create your first order!</p>
           )}
+          {nextCursor && (
+            <div className="text-center">
+              <Button variant="outline-secondary" onClick={() => fetchOrders(nextCursor)}>
+                Load more
+              </Button>
+            </div>
+          )}
         </Card.Body>
       </Card>
 
@@ -5,6 +5,7 @@ import axios from 'axios';
 
 const Product = () => {
   const [products, setProducts] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [showModal, setShowModal] = useState(false);
   const [editingProduct, setEditingProduct] = useState(null);
   const [loading, setLoading] = useState(true);
@@ -16,6 +17,7 @@ const Product = () => {
     description: '',
     price: '',
     quantity: '',
+    reorderThreshold: '',
     category: ''
   });
 
@@ -23,11 +25,12 @@ const Product = () => {
     fetchProducts();
   }, []);
 
-  const fetchProducts = async () => {
+  const fetchProducts = async (cursor) => {
     try {
       setError('');
-      const response = await axios.get('/api/products');
-      setProducts(response.data);
+      const response = await axios.get('/api/products', { params: cursor ? { cursor } : {} });
+      setProducts(previous => (cursor ? [...previous, ...response.data] : response.data));
+      setNextCursor(response.headers['x-next-cursor'] || null);
     } catch (error) {
       console.error('Error fetching products:', error);
       setError('Error fetching products. Please try again.');
@@ -40,18 +43,20 @@ const Product = () => {
     e.preventDefault();
     setError('');
     setSuccess('');
+    // A blank reorder threshold falls back to the server's default
+    const payload = { ...formData, reorderThreshold: formData.reorderThreshold === '' ? null : formData.reorderThreshold };
     try {
       if (editingProduct) {
-        await axios.put(`/api/products/${editingProduct.id}`, formData);
+        await axios.put(`/api/products/${editingProduct.id}`, payload);
         setSuccess('Product updated successfully');
       } else {
-        await axios.post('/api/products', formData);
+        await axios.post('/api/products', payload);
         setSuccess('Product created successfully');
       }
       fetchProducts();
       setShowModal(false);
       setEditingProduct(null);
-      setFormData({ sku: '', name: '', description: '', price: '', quantity: '', category: '' });
+      setFormData({ sku: '', name: '', description: '', price: '', quantity: '', reorderThreshold: '', category: '' });
     } catch (error) {
       setError(error.response?.data || 'Error saving product. Please try again.');
     }
@@ -65,6 +70,7 @@ const Product = () => {
       description: product.description || '',
       price: product.price.toString(),
       quantity: product.quantity.toString(),
+      reorderThreshold: product.reorderThreshold?.toString() ?? '',
       category: product.category || ''
     });
     setShowModal(true);
@@ -96,7 +102,7 @@ const Product = () => {
   const handleCloseModal = () => {
     setShowModal(false);
     setEditingProduct(null);
-    setFormData({ sku: '', name: '', description: '', price: '', quantity: '', category: '' });
+    setFormData({ sku: '', name: '', description: '', price: '', quantity: '', reorderThreshold: '', category: '' });
     setError('');
     setSuccess('');
   };
@@ -156,7 +162,7 @@ const Product = () => {
                     <td>{product.category}</td>
                     <td>${product.price}</td>
                     <td>
-                      <span className={`badge bg-${product.quantity < 10 ? 'danger' : 'success'}`}>
+                      <span className={`badge bg-${product.quantity <= (product.reorderThreshold ?? 10) ? 'danger' : 'success'}`}>
                         {product.quantity}
                       </span>
                     </td>
@@ -175,6 +181,13 @@ const Product = () => {
           ) : (
             <p className="text-muted text-center">No products found. Add your first product!</p>
           )}
+          {nextCursor && (
+            <div className="text-center">
+              <Button variant="outline-secondary" onClick={() => fetchProducts(nextCursor)}>
+                Load more
+              </Button>
+            </div>
+          )}
         </Card.Body>
       </Card>
 
@@ -258,6 +271,21 @@ const Product = () => {
                 </Form.Group>
               </Col>
             </Row>
+            <Row>
+              <Col md={4}>
+                <Form.Group className="mb-3">
+                  <Form.Label>Reorder at</Form.Label>
+                  <Form.Control
+                    type="number"
+                    min="0"
+                    name="reorderThreshold"
+                    value={formData.reorderThreshold}
+                    onChange={handleChange}
+                    placeholder="10"
+                  />
+                </Form.Group>
+              </Col>
+            </Row>
           </Form>
         </Modal.Body>
         <Modal.Footer>